@@ -2,8 +2,12 @@ package com.JavaInterviewQuestions.JavaInterviewQuestions;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ConfigurationPropertiesScan
 public class JavaInterviewQuestionsApplication {
 
 	public static void main(String[] args) {
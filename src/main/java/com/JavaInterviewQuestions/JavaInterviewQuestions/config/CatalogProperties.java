@@ -0,0 +1,37 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Products on sale, keyed by product code, each backed by one PDF asset.
+ *
+ * @param defaultProduct code of the product sold by the checkout page
+ * @param products product definitions by code
+ */
+@ConfigurationProperties(prefix = "catalog")
+public record CatalogProperties(String defaultProduct, Map<String, Product> products) {
+
+    /**
+     * @param name display name, used in emails
+     * @param price price in rupees
+     * @param pdfPath Spring resource location of the PDF, e.g. file:/data/pdf/book.pdf
+     * @param sha256 expected hex SHA-256 of the PDF; when blank the checksum is only logged
+     * @param attachmentName file name shown to the customer
+     */
+    public record Product(String name, int price, String pdfPath, String sha256, String attachmentName) {
+    }
+
+    /**
+     * Resolve a product code, falling back to the default product for
+     * orders placed before products were recorded, or unknown codes.
+     */
+    public String codeOrDefault(String code) {
+        return code != null && products.containsKey(code) ? code : defaultProduct;
+    }
+
+    public Product product(String code) {
+        return products.get(codeOrDefault(code));
+    }
+}
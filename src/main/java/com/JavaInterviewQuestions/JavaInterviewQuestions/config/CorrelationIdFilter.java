@@ -0,0 +1,43 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Tags every request's log events with a correlation id, taken from the
+ * X-Correlation-Id header when the caller sends one and echoed back.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "X-Correlation-Id";
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String correlationId = request.getHeader(HEADER);
+        if (correlationId == null || correlationId.isBlank() || correlationId.length() > 64) {
+            correlationId = UUID.randomUUID().toString();
+        }
+        
+        response.setHeader(HEADER, correlationId);
+        MDC.put(MdcKeys.CORRELATION_ID, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MdcKeys.CORRELATION_ID);
+            MDC.remove(MdcKeys.ORDER_ID);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets payment work finish on SIGTERM. Work units (payment and webhook
+ * requests, reconciliation runs) hold a ticket from {@link #tryEnter()}; on
+ * shutdown new tickets are refused, readiness flips to REFUSING_TRAFFIC, and
+ * stop blocks until every ticket is returned or the drain timeout passes.
+ *
+ * Runs in the highest lifecycle phase, so it drains before the web server
+ * starts its own graceful shutdown and before any bean is destroyed.
+ * Liveness stays CORRECT while draining so the platform does not kill the
+ * instance mid-drain.
+ */
+@Component
+@Slf4j
+public class DrainCoordinator implements SmartLifecycle {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final long drainTimeoutMs;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean draining;
+    private volatile boolean running;
+
+    public DrainCoordinator(ApplicationEventPublisher eventPublisher,
+                            @Value("${shutdown.drain-timeout-ms}") long drainTimeoutMs) {
+        this.eventPublisher = eventPublisher;
+        this.drainTimeoutMs = drainTimeoutMs;
+    }
+
+    /**
+     * Take a ticket for one unit of work; every successful call must be paired with {@link #exit()}
+     * @return false if the application is draining and the work should be refused
+     */
+    public boolean tryEnter() {
+        inFlight.incrementAndGet();
+        // Checked after incrementing, so stop never sees zero while this work is starting
+        if (draining) {
+            exit();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit() {
+        if (inFlight.decrementAndGet() == 0 && draining) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void start() {
+        draining = false;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        draining = true;
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        log.info("Shutdown requested, draining {} in-flight payment operations", inFlight.get());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        synchronized (this) {
+            try {
+                while (inFlight.get() > 0) {
+                    long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMs <= 0) {
+                        log.warn("Drain timed out with {} payment operations still in flight", inFlight.get());
+                        break;
+                    }
+                    wait(remainingMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        running = false;
+        log.info("Drain complete");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+}
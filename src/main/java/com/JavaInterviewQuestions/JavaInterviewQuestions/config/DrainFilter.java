@@ -0,0 +1,55 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts payment and webhook requests as in-flight work for the
+ * {@link DrainCoordinator}, and answers 503 once a shutdown has begun so
+ * browsers retry and Razorpay redelivers the webhook to the next instance.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DrainFilter extends OncePerRequestFilter {
+
+    private final DrainCoordinator drainCoordinator;
+
+    public DrainFilter(DrainCoordinator drainCoordinator) {
+        this.drainCoordinator = drainCoordinator;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/payment/") && !path.startsWith("/webhook/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!drainCoordinator.tryEnter()) {
+            // Written directly rather than via sendError, since the error page needs authentication
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Server is restarting, please retry in a few seconds.\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            drainCoordinator.exit();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLogging(@Value("${logging.sql.sample-rate}") double sampleRate) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SampledSqlStatementInspector(sampleRate));
+    }
+}
@@ -0,0 +1,13 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+/**
+ * MDC keys carried as fields on every structured log event.
+ */
+public final class MdcKeys {
+    
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String ORDER_ID = "orderId";
+    
+    private MdcKeys() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attaches the Razorpay order ID to whatever observation is current (the HTTP
+ * request, or an @Observed service call), so it ends up as a span attribute.
+ */
+@Component
+public class OrderTracing {
+
+    public static final String RAZORPAY_ORDER_ID = "razorpayOrderId";
+
+    private final ObservationRegistry observationRegistry;
+
+    public OrderTracing(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public void tagCurrent(String razorpayOrderId) {
+        Observation current = observationRegistry.getCurrentObservation();
+        if (current != null && razorpayOrderId != null && !razorpayOrderId.isEmpty()) {
+            current.highCardinalityKeyValue(RAZORPAY_ORDER_ID, razorpayOrderId);
+        }
+    }
+}
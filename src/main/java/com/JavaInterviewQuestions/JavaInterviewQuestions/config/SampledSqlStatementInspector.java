@@ -0,0 +1,28 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs a random sample of the SQL Hibernate executes at DEBUG, replacing
+ * spring.jpa.show-sql which printed every statement to stdout.
+ */
+@Slf4j
+public class SampledSqlStatementInspector implements StatementInspector {
+    
+    private final double sampleRate;
+    
+    public SampledSqlStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.debug("Sampled SQL: {}", sql);
+        }
+        return sql;
+    }
+}
@@ -2,19 +2,34 @@ package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestHeaderRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
+    /**
+     * Admin API calls skip the CSRF token only when they carry this header. A browser
+     * cannot add it to a cross-site form post, and a cross-origin script needs a CORS
+     * preflight to send it, so a logged-in admin's cached Basic credentials cannot be
+     * replayed from another site.
+     */
+    public static final String ADMIN_API_HEADER = "X-Requested-With";
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf
                 .ignoringRequestMatchers("/payment/**", "/webhook/**", "/h2-console/**") // Allow all payment endpoints & webhooks
+                .ignoringRequestMatchers(new AndRequestMatcher(
+                        new AntPathRequestMatcher("/admin/**"),
+                        new RequestHeaderRequestMatcher(ADMIN_API_HEADER)))
             )
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(
@@ -26,10 +41,13 @@ public class SecurityConfig {
                     "/css/**", 
                     "/js/**", 
                     "/images/**",
-                    "/h2-console/**"
+                    "/h2-console/**",
+                    "/actuator/health/**" // liveness/readiness probes
                 ).permitAll()
+                .requestMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
+            .httpBasic(Customizer.withDefaults())
             .headers(headers -> headers
                 .frameOptions(frame -> frame.disable()) // Disable for H2 console iframes
             );
@@ -0,0 +1,138 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers finished spans per trace and forwards a trace only once its local
+ * root span ends, and only if that root was slow or any span in the trace
+ * recorded an error. Fast, successful traces are dropped.
+ *
+ * Traces whose root never arrives (or spans ending after their root) are
+ * evicted after maxTraceAge, and at most maxBufferedTraces are held at once.
+ * The batch span processor calls export from a single worker thread; the
+ * methods are synchronized only so flush and shutdown are safe too.
+ */
+public class TailSamplingSpanExporter implements SpanExporter {
+
+    private final SpanExporter delegate;
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int maxBufferedTraces;
+    private final long maxTraceAgeNanos;
+    // Insertion ordered, so the oldest buffered trace is always first
+    private final Map<String, BufferedTrace> traces = new LinkedHashMap<>();
+
+    public TailSamplingSpanExporter(SpanExporter delegate, MeterRegistry meterRegistry,
+                                    long slowThresholdMs, int maxBufferedTraces, long maxTraceAgeMs) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.maxTraceAgeNanos = maxTraceAgeMs * 1_000_000;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        long now = System.nanoTime();
+        evictStale(now);
+
+        List<SpanData> sampled = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (isLocalRoot(span)) {
+                BufferedTrace trace = traces.remove(span.getTraceId());
+                List<SpanData> traceSpans = trace != null ? trace.spans : new ArrayList<>();
+                traceSpans.add(span);
+                if (isSlow(span) || hasError(traceSpans)) {
+                    sampled.addAll(traceSpans);
+                    decision("kept");
+                } else {
+                    decision("dropped");
+                }
+            } else {
+                BufferedTrace trace = traces.get(span.getTraceId());
+                if (trace == null) {
+                    if (traces.size() >= maxBufferedTraces) {
+                        evictOldest();
+                    }
+                    trace = new BufferedTrace(now);
+                    traces.put(span.getTraceId(), trace);
+                }
+                trace.spans.add(span);
+            }
+        }
+
+        return sampled.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(sampled);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        traces.clear();
+        return delegate.shutdown();
+    }
+
+    private boolean isSlow(SpanData root) {
+        return root.getEndEpochNanos() - root.getStartEpochNanos() >= slowThresholdNanos;
+    }
+
+    private static boolean isLocalRoot(SpanData span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static boolean hasError(List<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictStale(long now) {
+        Iterator<BufferedTrace> oldestFirst = traces.values().iterator();
+        while (oldestFirst.hasNext() && now - oldestFirst.next().firstSeenNanos > maxTraceAgeNanos) {
+            oldestFirst.remove();
+            decision("evicted");
+        }
+    }
+
+    private void evictOldest() {
+        Iterator<BufferedTrace> oldestFirst = traces.values().iterator();
+        if (oldestFirst.hasNext()) {
+            oldestFirst.next();
+            oldestFirst.remove();
+            decision("evicted");
+        }
+    }
+
+    private void decision(String outcome) {
+        meterRegistry.counter("tracing.tail_sampling.traces", "decision", outcome).increment();
+    }
+
+    private static final class BufferedTrace {
+
+        private final long firstSeenNanos;
+        private final List<SpanData> spans = new ArrayList<>();
+
+        private BufferedTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanExporters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Route every span exporter (OTLP, or the in-memory one in tests) through
+     * tail sampling. Replaces Boot's SpanExporters, which backs off.
+     */
+    @Bean
+    public SpanExporters spanExporters(ObjectProvider<SpanExporter> spanExporters,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${tracing.tail-sampling.slow-threshold-ms}") long slowThresholdMs,
+                                       @Value("${tracing.tail-sampling.max-buffered-traces}") int maxBufferedTraces,
+                                       @Value("${tracing.tail-sampling.max-trace-age-ms}") long maxTraceAgeMs) {
+        SpanExporter exporters = SpanExporter.composite(spanExporters.orderedStream().toList());
+        return SpanExporters.of(new TailSamplingSpanExporter(exporters, meterRegistry,
+                slowThresholdMs, maxBufferedTraces, maxTraceAgeMs));
+    }
+}
@@ -0,0 +1,160 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.controller;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.CampaignService;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.OrderExportService;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.OrderReconciler;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.SalesMetricsStore;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/admin")
+@Slf4j
+public class AdminController {
+    
+    private final CampaignService campaignService;
+    private final OrderExportService orderExportService;
+    private final SalesMetricsStore salesMetricsStore;
+    private final OrderReconciler orderReconciler;
+    
+    public AdminController(CampaignService campaignService, OrderExportService orderExportService,
+                           SalesMetricsStore salesMetricsStore, OrderReconciler orderReconciler) {
+        this.campaignService = campaignService;
+        this.orderExportService = orderExportService;
+        this.salesMetricsStore = salesMetricsStore;
+        this.orderReconciler = orderReconciler;
+    }
+    
+    @PostMapping("/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcile() {
+        Map<String, Object> response = new HashMap<>();
+        
+        OrderReconciler.ReconciliationResult result = orderReconciler.reconcile();
+        if (result == null) {
+            response.put("success", false);
+            response.put("message", "Reconciliation is already running.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        
+        response.put("success", true);
+        response.put("scanned", result.scanned());
+        response.put("fixed", result.fixed());
+        response.put("paid", result.paid());
+        response.put("failed", result.failed());
+        response.put("errors", result.errors());
+        response.put("durationMs", result.durationMs());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Sales dashboard served from pre-aggregated counters, independent of the order count
+     */
+    @GetMapping("/dashboard/sales")
+    public ResponseEntity<Map<String, Object>> salesDashboard(@RequestParam(defaultValue = "60") int minutes,
+                                                              @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(salesMetricsStore.dashboard(Math.max(minutes, 0), Math.max(days, 0)));
+    }
+    
+    @PostMapping("/campaigns/{campaignId}")
+    public ResponseEntity<Map<String, Object>> startCampaign(@PathVariable String campaignId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        boolean started = campaignService.startEditionUpdateCampaign(campaignId);
+        response.put("success", started);
+        response.put("campaignId", campaignId);
+        response.put("message", started
+                ? "Campaign started. Poll this URL with GET for progress."
+                : "Campaign is already running.");
+        
+        log.info("Campaign {} start requested (started: {})", campaignId, started);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(response);
+    }
+    
+    @GetMapping("/campaigns/{campaignId}")
+    public ResponseEntity<Map<String, Object>> campaignStatus(@PathVariable String campaignId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("campaignId", campaignId);
+        response.put("running", campaignService.isRunning(campaignId));
+        
+        campaignService.getCheckpoint(campaignId).ifPresent(checkpoint -> {
+            response.put("lastUserId", checkpoint.getLastUserId());
+            response.put("recipientsSent", checkpoint.getRecipientsSent());
+            response.put("batchesSent", checkpoint.getBatchesSent());
+            response.put("completed", checkpoint.isCompleted());
+            response.put("updatedAt", checkpoint.getUpdatedAt());
+        });
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Stream orders joined with users, e.g. /admin/export/orders?from=2026-01-01&to=2026-01-31&format=ndjson&gzip=true
+     */
+    @GetMapping("/export/orders")
+    public void exportOrders(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(defaultValue = "csv") String format,
+                             @RequestParam(defaultValue = "false") boolean gzip,
+                             HttpServletResponse response) throws IOException {
+        export("orders", from, to, format, gzip, response, orderExportService::exportOrders);
+    }
+    
+    /**
+     * Stream paid order count and revenue (in paise) per day
+     */
+    @GetMapping("/export/revenue")
+    public void exportRevenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                              @RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(defaultValue = "false") boolean gzip,
+                              HttpServletResponse response) throws IOException {
+        export("revenue", from, to, format, gzip, response, orderExportService::exportRevenue);
+    }
+    
+    private void export(String report, LocalDate from, LocalDate to, String format, boolean gzip,
+                        HttpServletResponse response, ExportCall exportCall) throws IOException {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported format: " + format);
+            return;
+        }
+        if (to.isBefore(from)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "'to' must not be before 'from'");
+            return;
+        }
+        
+        String filename = report + "_" + from + "_" + to + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                exportCall.export(from, to, exportFormat, gzipOut);
+            }
+        } else {
+            exportCall.export(from, to, exportFormat, out);
+            out.flush();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ExportCall {
+        long export(LocalDate from, LocalDate to, OrderExportService.Format format, OutputStream out) throws IOException;
+    }
+}
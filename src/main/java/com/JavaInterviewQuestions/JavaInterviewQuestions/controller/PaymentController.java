@@ -1,22 +1,33 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.controller;
 
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.MdcKeys;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.OrderTracing;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.dto.PaymentVerificationRequest;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.dto.RegistrationRequest;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.DownloadLinkSigner;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.service.PaymentService;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.PdfAssetStore;
 import com.razorpay.RazorpayException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/payment")
@@ -25,10 +36,20 @@ public class PaymentController {
     
     private final PaymentService paymentService;
     private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final PdfAssetStore pdfAssetStore;
+    private final OrderTracing orderTracing;
+    private final DownloadLinkSigner downloadLinkSigner;
     
-    public PaymentController(PaymentService paymentService, UserRepository userRepository) {
+    public PaymentController(PaymentService paymentService, UserRepository userRepository,
+                             OrderRepository orderRepository, PdfAssetStore pdfAssetStore,
+                             OrderTracing orderTracing, DownloadLinkSigner downloadLinkSigner) {
         this.paymentService = paymentService;
         this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.pdfAssetStore = pdfAssetStore;
+        this.orderTracing = orderTracing;
+        this.downloadLinkSigner = downloadLinkSigner;
     }
     
     // Redirect if someone accesses create-order via GET (browser URL)
@@ -59,6 +80,8 @@ public class PaymentController {
             
             // Create Razorpay order
             Order order = paymentService.createOrder(user);
+            MDC.put(MdcKeys.ORDER_ID, order.getRazorpayOrderId()); // cleared by CorrelationIdFilter
+            orderTracing.tagCurrent(order.getRazorpayOrderId());
             
             model.addAttribute("orderId", order.getRazorpayOrderId());
             model.addAttribute("amount", order.getAmount());
@@ -79,6 +102,8 @@ public class PaymentController {
     @ResponseBody
     public ResponseEntity<Map<String, Object>> verifyPayment(@RequestBody PaymentVerificationRequest request) {
         Map<String, Object> response = new HashMap<>();
+        MDC.put(MdcKeys.ORDER_ID, request.getRazorpayOrderId()); // cleared by CorrelationIdFilter
+        orderTracing.tagCurrent(request.getRazorpayOrderId());
         
         boolean isValid = paymentService.verifyPayment(
                 request.getRazorpayOrderId(),
@@ -118,6 +143,8 @@ public class PaymentController {
                 response.put("message", "Order ID is required.");
                 return ResponseEntity.badRequest().body(response);
             }
+            MDC.put(MdcKeys.ORDER_ID, orderId); // cleared by CorrelationIdFilter
+            orderTracing.tagCurrent(orderId);
             
             boolean emailSent = paymentService.resendEmail(orderId);
             response.put("success", emailSent);
@@ -133,5 +160,39 @@ public class PaymentController {
         
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Download the PDF for a paid order, streamed from the memory-mapped asset.
+     * Only reachable through the signed, expiring link in the delivery email.
+     */
+    @GetMapping("/download/{orderId}")
+    public void downloadPdf(@PathVariable String orderId, @RequestParam(required = false) String token,
+                            HttpServletResponse response) throws IOException {
+        MDC.put(MdcKeys.ORDER_ID, orderId); // cleared by CorrelationIdFilter
+        orderTracing.tagCurrent(orderId);
+        
+        if (!downloadLinkSigner.verify(orderId, token)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        
+        Optional<Order> order = orderRepository.findByRazorpayOrderId(orderId)
+                .filter(o -> o.getStatus() == Order.OrderStatus.PAID);
+        if (order.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Optional<PdfAssetStore.PdfAsset> pdf = pdfAssetStore.find(order.get().getProductCode());
+        if (pdf.isEmpty()) {
+            log.warn("No PDF available for product {}", order.get().getProductCode());
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        
+        response.setContentType("application/pdf");
+        response.setContentLengthLong(pdf.get().getSize());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + pdf.get().getFilename() + "\"");
+        response.setHeader(HttpHeaders.ETAG, "\"" + pdf.get().getSha256() + "\"");
+        pdf.get().writeTo(response.getOutputStream());
+    }
 }
-
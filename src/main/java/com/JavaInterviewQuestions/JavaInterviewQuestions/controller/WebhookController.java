@@ -1,11 +1,14 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.controller;
 
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.MdcKeys;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.OrderTracing;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.service.EmailService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,11 +31,14 @@ public class WebhookController {
     private final OrderRepository orderRepository;
     private final EmailService emailService;
     private final ObjectMapper objectMapper;
+    private final OrderTracing orderTracing;
 
-    public WebhookController(OrderRepository orderRepository, EmailService emailService, ObjectMapper objectMapper) {
+    public WebhookController(OrderRepository orderRepository, EmailService emailService, ObjectMapper objectMapper,
+                             OrderTracing orderTracing) {
         this.orderRepository = orderRepository;
         this.emailService = emailService;
         this.objectMapper = objectMapper;
+        this.orderTracing = orderTracing;
     }
 
     @PostMapping("/razorpay")
@@ -40,7 +46,7 @@ public class WebhookController {
             @RequestBody String payload,
             @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature) {
 
-        log.info("Received Razorpay webhook");
+        log.debug("Received Razorpay webhook");
 
         // Verify webhook signature
         if (signature != null && !verifyWebhookSignature(payload, signature)) {
@@ -51,21 +57,27 @@ public class WebhookController {
         try {
             JsonNode rootNode = objectMapper.readTree(payload);
             String event = rootNode.path("event").asText();
-
-            log.info("Processing webhook event: {}", event);
-
-            switch (event) {
-                case "payment.captured":
-                    handlePaymentCaptured(rootNode);
-                    break;
-                case "payment.failed":
-                    handlePaymentFailed(rootNode);
-                    break;
-                case "order.paid":
-                    handleOrderPaid(rootNode);
-                    break;
-                default:
-                    log.info("Unhandled webhook event: {}", event);
+            JsonNode eventPayload = rootNode.path("payload");
+            String orderId = eventPayload.path("payment").path("entity").path("order_id")
+                    .asText(eventPayload.path("order").path("entity").path("id").asText());
+            orderTracing.tagCurrent(orderId);
+
+            try (MDC.MDCCloseable ignored = MDC.putCloseable(MdcKeys.ORDER_ID, orderId)) {
+                log.info("Processing webhook event: {}", event);
+
+                switch (event) {
+                    case "payment.captured":
+                        handlePaymentCaptured(rootNode);
+                        break;
+                    case "payment.failed":
+                        handlePaymentFailed(rootNode);
+                        break;
+                    case "order.paid":
+                        handleOrderPaid(rootNode);
+                        break;
+                    default:
+                        log.debug("Unhandled webhook event: {}", event);
+                }
             }
 
             return ResponseEntity.ok("Webhook processed successfully");
@@ -83,7 +95,7 @@ public class WebhookController {
             String paymentId = paymentEntity.path("id").asText();
             String status = paymentEntity.path("status").asText();
 
-            log.info("Payment captured - Order ID: {}, Payment ID: {}, Status: {}", orderId, paymentId, status);
+            log.debug("Payment captured - Order ID: {}, Payment ID: {}, Status: {}", orderId, paymentId, status);
 
             Optional<Order> orderOpt = orderRepository.findByRazorpayOrderId(orderId);
             if (orderOpt.isPresent()) {
@@ -94,13 +106,14 @@ public class WebhookController {
                     order.setRazorpayPaymentId(paymentId);
                     order.setStatus(Order.OrderStatus.PAID);
                     order.setPaidAt(LocalDateTime.now());
-                    orderRepository.save(order);
+                    order = orderRepository.save(order);
 
                     // Send PDF email
-                    emailService.sendPdfEmail(order.getUser());
+                    order.setEmailSent(emailService.sendPdfEmail(order));
+                    orderRepository.save(order);
                     log.info("Order {} marked as PAID via webhook", orderId);
                 } else {
-                    log.info("Order {} already marked as PAID", orderId);
+                    log.debug("Order {} already marked as PAID", orderId);
                 }
             } else {
                 log.warn("Order not found for orderId: {}", orderId);
@@ -140,7 +153,7 @@ public class WebhookController {
             String orderId = orderEntity.path("id").asText();
             String status = orderEntity.path("status").asText();
 
-            log.info("Order paid event - Order ID: {}, Status: {}", orderId, status);
+            log.debug("Order paid event - Order ID: {}, Status: {}", orderId, status);
 
             Optional<Order> orderOpt = orderRepository.findByRazorpayOrderId(orderId);
             if (orderOpt.isPresent()) {
@@ -148,10 +161,11 @@ public class WebhookController {
                 if (order.getStatus() != Order.OrderStatus.PAID) {
                     order.setStatus(Order.OrderStatus.PAID);
                     order.setPaidAt(LocalDateTime.now());
-                    orderRepository.save(order);
+                    order = orderRepository.save(order);
 
                     // Send PDF email
-                    emailService.sendPdfEmail(order.getUser());
+                    order.setEmailSent(emailService.sendPdfEmail(order));
+                    orderRepository.save(order);
                     log.info("Order {} marked as PAID via order.paid webhook", orderId);
                 }
             }
@@ -0,0 +1,8 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.dto;
+
+/**
+ * Lightweight projection of a User used when streaming campaign recipients,
+ * so the persistence context does not fill up with managed entities.
+ */
+public record CampaignRecipient(Long id, String email, String name) {
+}
@@ -0,0 +1,35 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "campaign_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CampaignCheckpoint {
+    
+    @Id
+    private String campaignId;
+    
+    // Highest user id whose batch (and every batch before it) was accepted by SendGrid
+    @Builder.Default
+    private Long lastUserId = 0L;
+    
+    private long recipientsSent;
+    
+    private long batchesSent;
+    
+    private boolean completed;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
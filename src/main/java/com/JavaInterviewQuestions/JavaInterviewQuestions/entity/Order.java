@@ -1,5 +1,6 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.entity;
 
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.OrderStatusListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(OrderStatusListener.class)
 public class Order {
     
     @Id
@@ -22,6 +24,9 @@ public class Order {
     
     private String razorpayOrderId;
     
+    // Catalog product code; null on orders placed before the catalog, meaning the default product
+    private String productCode;
+    
     private String razorpayPaymentId;
     
     private String razorpaySignature;
@@ -38,6 +43,12 @@ public class Order {
     @Builder.Default
     private boolean emailSent = false;
     
+    // Status as last read from or written to the database, used to detect transitions
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private OrderStatus persistedStatus;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
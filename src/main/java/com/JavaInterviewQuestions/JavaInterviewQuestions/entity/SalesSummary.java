@@ -0,0 +1,51 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Periodic snapshot of one in-memory sales dashboard bucket,
+ * reloaded on startup so the counters survive restarts.
+ */
+@Entity
+@Table(name = "sales_summary", indexes = @Index(columnList = "granularity, bucketStart"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesSummary {
+
+    // e.g. "MINUTE:2026-10-19T10:15" or "DAY:2026-10-19T00:00"
+    @Id
+    private String bucketKey;
+
+    @Enumerated(EnumType.STRING)
+    private Granularity granularity;
+
+    private LocalDateTime bucketStart;
+
+    private long ordersCreated;
+
+    private long ordersPaid;
+
+    private long ordersFailed;
+
+    private long ordersRefunded;
+
+    private long emailsSent;
+
+    private long emailsFailed;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Granularity {
+        MINUTE, DAY
+    }
+}
@@ -0,0 +1,9 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.repository;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.CampaignCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CampaignCheckpointRepository extends JpaRepository<CampaignCheckpoint, String> {
+}
@@ -1,6 +1,7 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.repository;
 
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,5 +10,12 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByRazorpayOrderId(String razorpayOrderId);
+
+    /**
+     * Load the order together with its user, for sending email outside a request
+     * (scheduler, startup) where the lazy user proxy could not be initialized
+     */
+    @EntityGraph(attributePaths = "user")
+    Optional<Order> findWithUserByRazorpayOrderId(String razorpayOrderId);
 }
 
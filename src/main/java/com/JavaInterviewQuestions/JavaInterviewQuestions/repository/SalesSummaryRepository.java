@@ -0,0 +1,24 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.repository;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.SalesSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesSummaryRepository extends JpaRepository<SalesSummary, String> {
+    List<SalesSummary> findByGranularityAndBucketStartGreaterThanEqual(SalesSummary.Granularity granularity,
+                                                                      LocalDateTime from);
+
+    @Modifying
+    @Transactional
+    @Query("delete from SalesSummary s where s.granularity = :granularity and s.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("granularity") SalesSummary.Granularity granularity,
+                        @Param("cutoff") LocalDateTime cutoff);
+}
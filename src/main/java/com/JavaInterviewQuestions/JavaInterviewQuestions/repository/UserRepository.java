@@ -1,14 +1,32 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.repository;
 
+import com.JavaInterviewQuestions.JavaInterviewQuestions.dto.CampaignRecipient;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    /**
+     * Stream recipients in id order, starting after the given id.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.JavaInterviewQuestions.JavaInterviewQuestions.dto.CampaignRecipient(u.id, u.email, u.name) "
+            + "from User u where u.id > :afterId order by u.id")
+    Stream<CampaignRecipient> streamCampaignRecipients(@Param("afterId") Long afterId);
 }
-
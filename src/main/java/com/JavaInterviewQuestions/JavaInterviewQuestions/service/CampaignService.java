@@ -0,0 +1,299 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.DrainCoordinator;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.dto.CampaignRecipient;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.CampaignCheckpoint;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.CampaignCheckpointRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.sendgrid.Response;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Sends bulk emails to all users, packing up to 1,000 recipients into each
+ * SendGrid request as separate personalizations. Users are streamed from the
+ * database in id order and progress is checkpointed per campaign, so an
+ * interrupted campaign resumes after the last fully delivered batch. On
+ * shutdown a running campaign stops dispatching, lets in-flight batches
+ * finish and saves its checkpoint.
+ */
+@Service
+@Slf4j
+public class CampaignService {
+
+    // SendGrid rejects more personalizations than this in a single request
+    private static final int MAX_PERSONALIZATIONS = 1000;
+    private static final String NAME_PLACEHOLDER = "-name-";
+
+    private final UserRepository userRepository;
+    private final CampaignCheckpointRepository checkpointRepository;
+    private final EmailService emailService;
+    private final EmailTemplateRenderer templateRenderer;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate streamingTx;
+    private final TransactionTemplate checkpointTx;
+    private final RateLimiter rateLimiter;
+    private final DrainCoordinator drainCoordinator;
+    private final int batchSize;
+    private final int concurrency;
+    private final ExecutorService campaignRunner = Executors.newSingleThreadExecutor();
+    private final ExecutorService batchSenders;
+    private final Set<String> runningCampaigns = ConcurrentHashMap.newKeySet();
+
+    @Value("${sendgrid.from.email}")
+    private String fromEmail;
+
+    @Value("${sendgrid.from.name}")
+    private String fromName;
+
+    @Value("${product.name}")
+    private String productName;
+
+    @Value("${campaign.edition-update.subject}")
+    private String editionUpdateSubject;
+
+    public CampaignService(UserRepository userRepository,
+                           CampaignCheckpointRepository checkpointRepository,
+                           EmailService emailService,
+                           EmailTemplateRenderer templateRenderer,
+                           MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager,
+                           DrainCoordinator drainCoordinator,
+                           @Value("${campaign.batch-size}") int batchSize,
+                           @Value("${campaign.concurrency}") int concurrency,
+                           @Value("${campaign.requests-per-second}") double requestsPerSecond) {
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.emailService = emailService;
+        this.templateRenderer = templateRenderer;
+        this.meterRegistry = meterRegistry;
+        this.drainCoordinator = drainCoordinator;
+        this.batchSize = Math.min(Math.max(batchSize, 1), MAX_PERSONALIZATIONS);
+        this.concurrency = Math.max(concurrency, 1);
+        this.batchSenders = Executors.newFixedThreadPool(this.concurrency);
+        this.rateLimiter = new RateLimiter(requestsPerSecond);
+
+        this.streamingTx = new TransactionTemplate(transactionManager);
+        this.streamingTx.setReadOnly(true);
+        this.checkpointTx = new TransactionTemplate(transactionManager);
+        this.checkpointTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Start (or resume) the edition update campaign in the background
+     * @param campaignId identifies the campaign and its checkpoint
+     * @return false if the campaign is already running
+     */
+    public boolean startEditionUpdateCampaign(String campaignId) {
+        if (!runningCampaigns.add(campaignId)) {
+            return false;
+        }
+        campaignRunner.submit(() -> {
+            if (!drainCoordinator.tryEnter()) {
+                runningCampaigns.remove(campaignId);
+                return;
+            }
+            try {
+                runCampaign(campaignId);
+            } catch (RuntimeException e) {
+                log.error("Campaign {} aborted", campaignId, e);
+            } finally {
+                runningCampaigns.remove(campaignId);
+                drainCoordinator.exit();
+            }
+        });
+        return true;
+    }
+
+    public Optional<CampaignCheckpoint> getCheckpoint(String campaignId) {
+        return checkpointRepository.findById(campaignId);
+    }
+
+    public boolean isRunning(String campaignId) {
+        return runningCampaigns.contains(campaignId);
+    }
+
+    private void runCampaign(String campaignId) {
+        CampaignCheckpoint checkpoint = checkpointRepository.findById(campaignId)
+                .orElseGet(() -> CampaignCheckpoint.builder().campaignId(campaignId).build());
+        if (checkpoint.isCompleted()) {
+            log.info("Campaign {} already completed, nothing to send", campaignId);
+            return;
+        }
+
+        log.info("Starting campaign {} after user id {}", campaignId, checkpoint.getLastUserId());
+        String html = templateRenderer.render(EmailTemplateRenderer.EDITION_UPDATE, Map.of(
+                "productName", productName,
+                "fromName", fromName
+        ));
+
+        Deque<PendingBatch> inFlight = new ArrayDeque<>();
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicBoolean paused = new AtomicBoolean();
+        // Sticky for the whole run: once a batch fails, no later batch may move the checkpoint
+        AtomicBoolean failed = new AtomicBoolean();
+
+        streamingTx.executeWithoutResult(status -> {
+            try (Stream<CampaignRecipient> recipients =
+                         userRepository.streamCampaignRecipients(checkpoint.getLastUserId())) {
+                Iterator<CampaignRecipient> iterator = recipients.iterator();
+                List<CampaignRecipient> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext()) {
+                    if (drainCoordinator.isDraining()) {
+                        paused.set(true);
+                        break;
+                    }
+                    batch.add(iterator.next());
+                    if (batch.size() == batchSize || !iterator.hasNext()) {
+                        // Blocks while `concurrency` batches are in flight, which also
+                        // stops the cursor from running ahead of SendGrid
+                        permits.acquireUninterruptibly();
+                        List<CampaignRecipient> toSend = batch;
+                        CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> {
+                            try {
+                                return sendBatch(campaignId, html, toSend);
+                            } finally {
+                                permits.release();
+                            }
+                        }, batchSenders);
+                        inFlight.addLast(new PendingBatch(toSend.get(toSend.size() - 1).id(), toSend.size(), future));
+                        batch = new ArrayList<>(batchSize);
+
+                        if (!advanceCheckpoint(checkpoint, inFlight, false, failed)) {
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+
+        // Let in-flight batches finish; nothing after a failed batch is recorded
+        advanceCheckpoint(checkpoint, inFlight, true, failed);
+        checkpoint.setCompleted(!failed.get() && !paused.get());
+        saveCheckpoint(checkpoint);
+
+        if (paused.get() && !failed.get()) {
+            log.info("Campaign {} paused for shutdown; {} recipients sent so far, resume to continue",
+                    campaignId, checkpoint.getRecipientsSent());
+        } else if (failed.get()) {
+            log.warn("Campaign {} stopped after a failed batch; {} recipients sent so far, resume to continue",
+                    campaignId, checkpoint.getRecipientsSent());
+        } else {
+            log.info("Campaign {} completed: {} recipients in {} batches",
+                    campaignId, checkpoint.getRecipientsSent(), checkpoint.getBatchesSent());
+        }
+    }
+
+    /**
+     * Move the checkpoint past every leading batch that has completed successfully.
+     * Batches can finish out of order, so only the contiguous prefix is recorded;
+     * once a batch has failed (in this call or an earlier one) nothing after it is,
+     * so a resume resends from the failed batch on.
+     * @param waitForAll block until every in-flight batch is done
+     * @param failed set when a failed batch is reached, and carried across calls
+     * @return false if a failed batch has been reached
+     */
+    private boolean advanceCheckpoint(CampaignCheckpoint checkpoint, Deque<PendingBatch> inFlight,
+                                      boolean waitForAll, AtomicBoolean failed) {
+        boolean advanced = false;
+        while (!inFlight.isEmpty() && (waitForAll || inFlight.peekFirst().result().isDone())) {
+            PendingBatch head = inFlight.pollFirst();
+            if (!head.result().join()) {
+                failed.set(true);
+            }
+            if (!failed.get()) {
+                checkpoint.setLastUserId(head.lastUserId());
+                checkpoint.setRecipientsSent(checkpoint.getRecipientsSent() + head.size());
+                checkpoint.setBatchesSent(checkpoint.getBatchesSent() + 1);
+                advanced = true;
+            } else if (!waitForAll) {
+                break;
+            }
+        }
+        if (advanced) {
+            saveCheckpoint(checkpoint);
+        }
+        return !failed.get();
+    }
+
+    private void saveCheckpoint(CampaignCheckpoint checkpoint) {
+        checkpointTx.executeWithoutResult(status -> checkpointRepository.save(checkpoint));
+    }
+
+    private boolean sendBatch(String campaignId, String html, List<CampaignRecipient> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean sent = false;
+        try {
+            rateLimiter.acquire();
+
+            Mail mail = new Mail();
+            mail.setFrom(new Email(fromEmail, fromName));
+            mail.setSubject(editionUpdateSubject);
+            mail.addContent(new Content("text/html", html));
+            for (CampaignRecipient recipient : batch) {
+                Personalization personalization = new Personalization();
+                personalization.addTo(new Email(recipient.email()));
+                personalization.addSubstitution(NAME_PLACEHOLDER,
+                        HtmlUtils.htmlEscape(recipient.name() != null ? recipient.name() : ""));
+                mail.addPersonalization(personalization);
+            }
+
+            Response response = emailService.send(mail);
+            sent = response.getStatusCode() >= 200 && response.getStatusCode() < 300;
+            if (!sent) {
+                log.error("Campaign {} batch rejected by SendGrid - Status: {}", campaignId, response.getStatusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Campaign {} batch failed - IOException: {}", campaignId, e.getMessage());
+        } catch (RuntimeException e) {
+            // A failed batch, not a failed future: the checkpoint logic must still see it
+            log.error("Campaign {} batch failed", campaignId, e);
+        } finally {
+            String outcome = sent ? "success" : "failure";
+            sample.stop(meterRegistry.timer("campaign.batch.duration", "campaign", campaignId, "outcome", outcome));
+            meterRegistry.counter("campaign.recipients", "campaign", campaignId, "outcome", outcome)
+                    .increment(batch.size());
+        }
+        return sent;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        campaignRunner.shutdownNow();
+        batchSenders.shutdown();
+    }
+
+    private record PendingBatch(Long lastUserId, int size, CompletableFuture<Boolean> result) {
+    }
+}
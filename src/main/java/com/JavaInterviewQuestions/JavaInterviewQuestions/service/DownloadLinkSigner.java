@@ -0,0 +1,98 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Signs the PDF download links emailed to buyers. A token is its expiry in epoch
+ * seconds plus an HMAC-SHA256 over order id and expiry, so a link only opens its
+ * own order's PDF and only until it expires, with nothing stored per order.
+ */
+@Component
+@Slf4j
+public class DownloadLinkSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final byte[] secret;
+    private final Duration ttl;
+    private final String baseUrl;
+
+    public DownloadLinkSigner(@Value("${download.link.secret}") String secret,
+                              @Value("${download.link.ttl-hours}") long ttlHours,
+                              @Value("${app.base-url}") String baseUrl) {
+        if (secret == null || secret.isBlank()) {
+            // Links then stop working on restart, and differ between instances
+            log.warn("download.link.secret is not set; using a random secret for this run");
+            this.secret = new byte[32];
+            new SecureRandom().nextBytes(this.secret);
+        } else {
+            this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.ttl = Duration.ofHours(ttlHours);
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * @param razorpayOrderId the paid order
+     * @return an absolute download URL valid for download.link.ttl-hours
+     */
+    public String link(String razorpayOrderId) {
+        return baseUrl + "/payment/download/" + razorpayOrderId
+                + "?token=" + token(razorpayOrderId, Instant.now().plus(ttl));
+    }
+
+    /**
+     * @return a token for the order that stops verifying after expiresAt
+     */
+    public String token(String razorpayOrderId, Instant expiresAt) {
+        long expiry = expiresAt.getEpochSecond();
+        return expiry + "." + HexFormat.of().formatHex(sign(razorpayOrderId, expiry));
+    }
+
+    /**
+     * @return true if the token was issued for this order and has not expired
+     */
+    public boolean verify(String razorpayOrderId, String token) {
+        if (razorpayOrderId == null || token == null) {
+            return false;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        long expiry;
+        byte[] signature;
+        try {
+            expiry = Long.parseLong(token.substring(0, dot));
+            signature = HexFormat.of().parseHex(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (Instant.now().getEpochSecond() > expiry) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(razorpayOrderId, expiry), signature);
+    }
+
+    private byte[] sign(String razorpayOrderId, long expiry) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac.doFinal((razorpayOrderId + "|" + expiry).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
 
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.CatalogProperties;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.MdcKeys;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.OrderTracing;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
 import com.sendgrid.Method;
@@ -10,87 +14,121 @@ import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Attachments;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
 public class EmailService {
     
     private final UserRepository userRepository;
+    private final EmailTemplateRenderer templateRenderer;
+    private final SalesMetricsStore salesMetricsStore;
+    private final ObservationRegistry observationRegistry;
+    private final PdfAssetStore pdfAssetStore;
+    private final CatalogProperties catalog;
+    private final DownloadLinkSigner downloadLinkSigner;
     
     @Value("${sendgrid.api.key}")
     private String sendGridApiKey;
     
+    @Value("${sendgrid.api.host}")
+    private String sendGridHost;
+    
+    // Plain HTTP is only for pointing at a local stub in load tests
+    @Value("${sendgrid.api.plain-http}")
+    private boolean sendGridPlainHttp;
+    
+    private SendGrid sendGrid;
+    
     @Value("${sendgrid.from.email}")
     private String fromEmail;
     
     @Value("${sendgrid.from.name}")
     private String fromName;
     
-    @Value("${product.pdf.path}")
-    private Resource pdfResource;
-    
-    @Value("${product.name}")
-    private String productName;
-    
-    public EmailService(UserRepository userRepository) {
+    public EmailService(UserRepository userRepository, EmailTemplateRenderer templateRenderer,
+                        SalesMetricsStore salesMetricsStore, ObservationRegistry observationRegistry,
+                        PdfAssetStore pdfAssetStore, CatalogProperties catalog,
+                        DownloadLinkSigner downloadLinkSigner) {
         this.userRepository = userRepository;
+        this.templateRenderer = templateRenderer;
+        this.salesMetricsStore = salesMetricsStore;
+        this.observationRegistry = observationRegistry;
+        this.pdfAssetStore = pdfAssetStore;
+        this.catalog = catalog;
+        this.downloadLinkSigner = downloadLinkSigner;
+    }
+    
+    @PostConstruct
+    void initSendGrid() {
+        // One client for the whole app so connections to SendGrid are pooled and reused
+        sendGrid = new SendGrid(sendGridApiKey, sendGridPlainHttp);
+        sendGrid.setHost(sendGridHost);
     }
     
     /**
-     * Send PDF email to user using SendGrid
-     * @param user the user to send email to
+     * Send PDF email to the buyer of a paid order using SendGrid, with the PDF
+     * attached and a signed download link
+     * @param order the paid order, with its user loaded
      * @return true if email was sent successfully, false otherwise
      */
-    public boolean sendPdfEmail(User user) {
+    @Observed(name = "email.service")
+    public boolean sendPdfEmail(Order order) {
+        boolean sent = deliverPdfEmail(order.getUser(), order.getProductCode(), order.getRazorpayOrderId());
+        salesMetricsStore.record(sent ? SalesMetricsStore.Event.EMAIL_SENT : SalesMetricsStore.Event.EMAIL_FAILED);
+        return sent;
+    }
+    
+    private boolean deliverPdfEmail(User user, String productCode, String razorpayOrderId) {
         try {
+            String productName = catalog.product(productCode).name();
             Email from = new Email(fromEmail, fromName);
             Email to = new Email(user.getEmail());
             String subject = "🎉 Your " + productName + " is here!";
             
-            Content content = new Content("text/html", buildEmailContent(user.getName()));
+            Content content = new Content("text/html",
+                    buildEmailContent(user.getName(), productName, downloadLinkSigner.link(razorpayOrderId)));
             Mail mail = new Mail(from, subject, to, content);
             
             // Attach PDF if available
             boolean pdfAttached = false;
-            if (pdfResource != null && pdfResource.exists()) {
-                try (InputStream inputStream = pdfResource.getInputStream()) {
-                    byte[] pdfBytes = inputStream.readAllBytes();
-                    String encodedPdf = Base64.getEncoder().encodeToString(pdfBytes);
-                    
-                    Attachments attachment = new Attachments();
-                    attachment.setContent(encodedPdf);
-                    attachment.setType("application/pdf");
-                    attachment.setFilename("Java-Spring-Interview-Questions.pdf");
-                    attachment.setDisposition("attachment");
-                    
-                    mail.addAttachments(attachment);
-                    pdfAttached = true;
-                    log.info("PDF attached successfully for: {}", user.getEmail());
-                } catch (Exception e) {
-                    log.warn("Could not attach PDF: {}. Sending email without attachment.", e.getMessage());
-                    mail = new Mail(from, subject, to, new Content("text/html", buildEmailContentWithoutPdf(user.getName())));
-                }
+            Optional<PdfAssetStore.PdfAsset> pdf = pdfAssetStore.find(productCode);
+            if (pdf.isPresent()) {
+                // SendGrid takes attachments inline as base64, so encode straight from the mapped file
+                ByteBuffer encoded = Base64.getEncoder().encode(pdf.get().contents());
+                
+                Attachments attachment = new Attachments();
+                attachment.setContent(new String(encoded.array(), 0, encoded.limit(), StandardCharsets.US_ASCII));
+                attachment.setType("application/pdf");
+                attachment.setFilename(pdf.get().getFilename());
+                attachment.setDisposition("attachment");
+                
+                mail.addAttachments(attachment);
+                pdfAttached = true;
+                log.debug("PDF attached successfully for: {}", user.getEmail());
             } else {
                 log.warn("PDF file not found, sending email without attachment to: {}", user.getEmail());
-                mail = new Mail(from, subject, to, new Content("text/html", buildEmailContentWithoutPdf(user.getName())));
+                mail = new Mail(from, subject, to,
+                        new Content("text/html", buildEmailContentWithoutPdf(user.getName(), productName)));
             }
             
             // Send via SendGrid
-            SendGrid sg = new SendGrid(sendGridApiKey);
-            Request request = new Request();
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
-            
-            Response response = sg.api(request);
+            Response response = send(mail);
             
             if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
                 user.setPdfDelivered(pdfAttached);
@@ -99,7 +137,8 @@ public class EmailService {
                         user.getEmail(), response.getStatusCode(), pdfAttached);
                 return true;
             } else {
-                log.error("SendGrid API error - Status: {}, Body: {}", response.getStatusCode(), response.getBody());
+                log.error("SendGrid API error - Status: {}", response.getStatusCode());
+                log.debug("SendGrid error body: {}", abbreviate(response.getBody()));
                 return false;
             }
             
@@ -112,76 +151,62 @@ public class EmailService {
         }
     }
     
-    private String buildEmailContent(String name) {
-        return """
-            <html>
-            <body style="font-family: 'Segoe UI', Arial, sans-serif; background: #0f0f23; color: #cccccc; padding: 40px;">
-                <div style="max-width: 600px; margin: 0 auto; background: #1a1a2e; border-radius: 16px; padding: 40px; border: 1px solid #16213e;">
-                    <h1 style="color: #00d9ff; margin-bottom: 20px;">🚀 Thank You, %s!</h1>
-                    <p style="font-size: 16px; line-height: 1.8;">
-                        Your purchase is complete! Attached is your <strong style="color: #ffd700;">Java & Spring Knowledge Boost</strong> eBook.
-                    </p>
-                    <div style="background: #16213e; border-left: 4px solid #00d9ff; padding: 20px; margin: 30px 0; border-radius: 8px;">
-                        <p style="margin: 0; color: #e0e0e0;">
-                            📚 <strong>961 Interview Questions</strong><br>
-                            ✅ Java Core + Streams + Scenarios<br>
-                            ✅ Spring Boot + Microservices<br>
-                            ✅ REST API + Testing<br>
-                            ✅ Coding Problems + Cheat Sheets
-                        </p>
-                    </div>
-                    <p style="color: #888; font-size: 14px;">
-                        Keep this email safe - it's your proof of purchase!
-                    </p>
-                    <div style="background: #0f0f23; padding: 15px; border-radius: 8px; margin: 20px 0;">
-                        <p style="margin: 0; color: #ffc107; font-size: 13px;">
-                            💡 <strong>Tip:</strong> To ensure you receive future emails, add <strong>backendwithvenu@gmail.com</strong> to your contacts!
-                        </p>
-                    </div>
-                    <p style="margin-top: 30px; color: #00d9ff;">
-                        Best of luck with your interviews! 💪<br>
-                        <span style="color: #888;">- backendwithvenu</span>
-                    </p>
-                </div>
-            </body>
-            </html>
-            """.formatted(name);
+    /**
+     * Post a prepared mail to the SendGrid mail/send endpoint
+     * @param mail the mail, possibly carrying many personalizations
+     * @return the raw SendGrid response
+     */
+    public Response send(Mail mail) throws IOException {
+        Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        request.setBody(mail.build());
+        
+        Observation observation = Observation.createNotStarted("sendgrid.api", observationRegistry)
+                .contextualName("sendgrid POST mail/send")
+                .lowCardinalityKeyValue("endpoint", "mail/send");
+        // Set by the payment and webhook controllers; absent for campaign sends
+        String razorpayOrderId = MDC.get(MdcKeys.ORDER_ID);
+        if (razorpayOrderId != null) {
+            observation.highCardinalityKeyValue(OrderTracing.RAZORPAY_ORDER_ID, razorpayOrderId);
+        }
+        observation.start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            Response response = sendGrid.api(request);
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.getStatusCode()));
+            if (response.getStatusCode() >= 400) {
+                // Mark the span as errored so tail sampling keeps the trace
+                observation.error(new IOException("SendGrid returned " + response.getStatusCode()));
+            }
+            return response;
+        } catch (IOException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+    
+    private static String abbreviate(String body) {
+        return body != null && body.length() > 500 ? body.substring(0, 500) + "..." : body;
+    }
+    
+    private String buildEmailContent(String name, String productName, String downloadUrl) {
+        Map<String, Object> variables = new HashMap<>(templateVariables(name, productName));
+        variables.put("downloadUrl", downloadUrl);
+        return templateRenderer.render(EmailTemplateRenderer.PDF_DELIVERY, variables);
+    }
+    
+    private String buildEmailContentWithoutPdf(String name, String productName) {
+        return templateRenderer.render(EmailTemplateRenderer.PDF_PENDING, templateVariables(name, productName));
     }
     
-    private String buildEmailContentWithoutPdf(String name) {
-        return """
-            <html>
-            <body style="font-family: 'Segoe UI', Arial, sans-serif; background: #0f0f23; color: #cccccc; padding: 40px;">
-                <div style="max-width: 600px; margin: 0 auto; background: #1a1a2e; border-radius: 16px; padding: 40px; border: 1px solid #16213e;">
-                    <h1 style="color: #00d9ff; margin-bottom: 20px;">🚀 Thank You, %s!</h1>
-                    <p style="font-size: 16px; line-height: 1.8;">
-                        Your purchase is complete! Your <strong style="color: #ffd700;">Java & Spring Knowledge Boost</strong> eBook will be sent to you shortly.
-                    </p>
-                    <div style="background: #16213e; border-left: 4px solid #ffc107; padding: 20px; margin: 30px 0; border-radius: 8px;">
-                        <p style="margin: 0; color: #ffc107;">
-                            ⏳ <strong>Your PDF is being prepared!</strong><br>
-                            <span style="color: #e0e0e0;">We'll send it to this email address within 24 hours.</span>
-                        </p>
-                    </div>
-                    <div style="background: #16213e; border-left: 4px solid #00d9ff; padding: 20px; margin: 30px 0; border-radius: 8px;">
-                        <p style="margin: 0; color: #e0e0e0;">
-                            📚 <strong>961 Interview Questions</strong><br>
-                            ✅ Java Core + Streams + Scenarios<br>
-                            ✅ Spring Boot + Microservices<br>
-                            ✅ REST API + Testing<br>
-                            ✅ Coding Problems + Cheat Sheets
-                        </p>
-                    </div>
-                    <p style="color: #888; font-size: 14px;">
-                        Keep this email safe - it's your proof of purchase!
-                    </p>
-                    <p style="margin-top: 30px; color: #00d9ff;">
-                        Best of luck with your interviews! 💪<br>
-                        <span style="color: #888;">- backendwithvenu</span>
-                    </p>
-                </div>
-            </body>
-            </html>
-            """.formatted(name);
+    private Map<String, Object> templateVariables(String name, String productName) {
+        return Map.of(
+                "name", name != null ? name : "",
+                "productName", productName,
+                "fromEmail", fromEmail,
+                "fromName", fromName
+        );
     }
 }
@@ -0,0 +1,90 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders email bodies from Thymeleaf templates under templates/email/{version}/.
+ * Uses its own engine so the template cache stays on even when
+ * spring.thymeleaf.cache is disabled for the web pages. Every known template
+ * is parsed once at startup, so the cache is warm before the first paid
+ * order and a bad email.template.version fails startup instead of an email.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    public static final String PDF_DELIVERY = "pdf-delivery";
+    public static final String PDF_PENDING = "pdf-pending";
+    public static final String EDITION_UPDATE = "edition-update";
+
+    private static final List<String> TEMPLATES = List.of(PDF_DELIVERY, PDF_PENDING, EDITION_UPDATE);
+
+    private final SpringTemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final String templateVersion;
+
+    public EmailTemplateRenderer(MeterRegistry meterRegistry,
+                                 @Value("${email.template.version}") String templateVersion) {
+        this.meterRegistry = meterRegistry;
+        this.templateVersion = templateVersion;
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/" + templateVersion + "/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+
+        // SpEL rather than OGNL, which is not on the classpath; expressions are compiled after first use
+        this.templateEngine = new SpringTemplateEngine();
+        this.templateEngine.setEnableSpringELCompiler(true);
+        this.templateEngine.setTemplateResolver(resolver);
+    }
+
+    @PostConstruct
+    void loadTemplates() {
+        for (String template : TEMPLATES) {
+            try {
+                templateEngine.process(template, new Context(Locale.ENGLISH));
+            } catch (TemplateEngineException e) {
+                throw new IllegalStateException("Email template " + template + " (version " + templateVersion
+                        + ") could not be loaded: " + e.getMessage(), e);
+            }
+        }
+        log.info("Email templates {} loaded from version {}", TEMPLATES, templateVersion);
+    }
+
+    /**
+     * Render an email template. Variables written with th:text are HTML-escaped.
+     * @param template template name without version or suffix, e.g. {@link #PDF_DELIVERY}
+     * @param variables values exposed to the template
+     * @return the rendered HTML body
+     */
+    public String render(String template, Map<String, Object> variables) {
+        Context context = new Context(Locale.ENGLISH, variables);
+        return Timer.builder("email.template.render")
+                .tag("template", template)
+                .tag("version", templateVersion)
+                .register(meterRegistry)
+                .record(() -> templateEngine.process(template, context));
+    }
+
+    public String getTemplateVersion() {
+        return templateVersion;
+    }
+}
@@ -0,0 +1,259 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Streams accounting reports straight from a JDBC cursor to an output stream.
+ * Rows are written as they are fetched, so memory use does not depend on
+ * the number of orders in the range.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String ORDERS_SQL = """
+            select o.id as order_id, o.razorpay_order_id, o.razorpay_payment_id, o.amount, o.status,
+                   o.created_at, o.paid_at, o.email_sent,
+                   u.id as user_id, u.name, u.email, u.phone_number
+            from orders o
+            left join users u on u.id = o.user_id
+            where o.created_at >= ? and o.created_at < ?
+            order by o.id
+            """;
+
+    private static final String REVENUE_SQL = """
+            select cast(o.paid_at as date) as paid_date, count(*) as paid_orders, sum(o.amount) as revenue_paise
+            from orders o
+            where o.status = 'PAID' and o.paid_at >= ? and o.paid_at < ?
+            group by cast(o.paid_at as date)
+            order by paid_date
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource, ObjectMapper objectMapper,
+                              @Value("${export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export orders joined with their users, created within [from, to] inclusive
+     * @return number of rows written
+     */
+    public long exportOrders(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        return export(ORDERS_SQL, from, to, format, out);
+    }
+
+    /**
+     * Export paid order count and revenue per day, paid within [from, to] inclusive
+     * @return number of rows written
+     */
+    public long exportRevenue(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        return export(REVENUE_SQL, from, to, format, out);
+    }
+
+    private long export(String sql, LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        Long rows;
+
+        try {
+            rows = jdbcTemplate.query(sql, (ResultSetExtractor<Long>) rs -> {
+                try {
+                    writer.start(rs.getMetaData());
+                    long count = 0;
+                    while (rs.next()) {
+                        writer.write(rs);
+                        count++;
+                    }
+                    writer.finish();
+                    return count;
+                } catch (IOException e) {
+                    // Client went away; surface it so the cursor is closed
+                    throw new UncheckedIOException(e);
+                }
+            }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Exported {} rows as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return value;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private interface RowWriter {
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static String[] columnLabels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            // H2 upper-cases unquoted labels, MySQL keeps them as written
+            labels[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+        }
+        return labels;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private int columns;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            String[] labels = columnLabels(metaData);
+            columns = labels.length;
+            writer.write(String.join(",", labels));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = normalize(rs.getObject(i));
+                if (value instanceof String text) {
+                    writer.write(escape(neutralizeFormula(text)));
+                } else if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * Customer-supplied text such as names and emails could start with =, +, - or @,
+         * which spreadsheets evaluate as a formula; a leading quote makes them plain text.
+         * Numbers are not text values, so negative amounts are left alone.
+         */
+        private static String neutralizeFormula(String value) {
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                return "'" + value;
+            }
+            return value;
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private String[] labels;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            // The response stream belongs to the caller
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException {
+            labels = columnLabels(metaData);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                Object value = normalize(rs.getObject(i + 1));
+                generator.writeFieldName(labels[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
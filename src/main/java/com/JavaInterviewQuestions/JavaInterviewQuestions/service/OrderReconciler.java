@@ -0,0 +1,332 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.DrainCoordinator;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fixes orders left in CREATED when the browser closed before /payment/verify
+ * and the webhook never arrived. Orders created within the lookback window
+ * that have gone stale are paged by id (keyset
+ * pagination), their payments are looked up on Razorpay in parallel, and
+ * PAID/FAILED transitions are written back in JDBC batches.
+ *
+ * Also redelivers emails for orders that are PAID but never got one, e.g.
+ * because the instance shut down mid-send. These are picked up on startup
+ * and on every scheduled run.
+ */
+@Component
+@Slf4j
+public class OrderReconciler {
+
+    // Abandoned checkouts have no payments and stay CREATED, so the lookback keeps the scan bounded
+    private static final String STALE_ORDERS_SQL = """
+            select id, razorpay_order_id from orders
+            where status = 'CREATED' and created_at < ? and created_at > ? and id > ?
+            order by id
+            limit ?
+            """;
+
+    // The status guard keeps a concurrent webhook or /payment/verify from being overwritten
+    private static final String UPDATE_SQL = """
+            update orders set status = ?, razorpay_payment_id = ?, paid_at = ?
+            where id = ? and status = 'CREATED'
+            """;
+
+    // Orders paid a while ago (so no send is still in flight) but not too long ago
+    private static final String PENDING_EMAILS_SQL = """
+            select razorpay_order_id from orders
+            where status = 'PAID' and email_sent = false and paid_at < ? and paid_at > ?
+            order by id
+            limit ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RazorpayApiClient razorpayApiClient;
+    private final PaymentService paymentService;
+    private final SalesMetricsStore salesMetricsStore;
+    private final MeterRegistry meterRegistry;
+    private final RateLimiter rateLimiter;
+    private final DrainCoordinator drainCoordinator;
+    private final ExecutorService lookupPool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${razorpay.reconcile.enabled}")
+    private boolean enabled;
+
+    @Value("${razorpay.reconcile.stale-after-minutes}")
+    private long staleAfterMinutes;
+
+    @Value("${razorpay.reconcile.lookback-hours}")
+    private long lookbackHours;
+
+    @Value("${razorpay.reconcile.page-size}")
+    private int pageSize;
+
+    @Value("${razorpay.reconcile.redeliver-after-minutes}")
+    private long redeliverAfterMinutes;
+
+    @Value("${razorpay.reconcile.redeliver-lookback-hours}")
+    private long redeliverLookbackHours;
+
+    public OrderReconciler(DataSource dataSource,
+                           RazorpayApiClient razorpayApiClient,
+                           PaymentService paymentService,
+                           SalesMetricsStore salesMetricsStore,
+                           MeterRegistry meterRegistry,
+                           DrainCoordinator drainCoordinator,
+                           @Value("${razorpay.reconcile.concurrency}") int concurrency,
+                           @Value("${razorpay.reconcile.requests-per-second}") double requestsPerSecond) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.razorpayApiClient = razorpayApiClient;
+        this.paymentService = paymentService;
+        this.salesMetricsStore = salesMetricsStore;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = new RateLimiter(requestsPerSecond);
+        this.drainCoordinator = drainCoordinator;
+        this.lookupPool = Executors.newFixedThreadPool(Math.max(concurrency, 1));
+    }
+
+    @Scheduled(fixedDelayString = "${razorpay.reconcile.interval-ms}",
+            initialDelayString = "${razorpay.reconcile.interval-ms}")
+    public void scheduledRun() {
+        if (enabled) {
+            reconcile();
+            redeliverPendingEmails();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void redeliverOnStartup() {
+        if (enabled) {
+            redeliverPendingEmails();
+        }
+    }
+
+    /**
+     * Run one reconciliation pass over stale CREATED orders within the lookback window
+     * @return counts for this run, or null if a run is already in progress or the app is shutting down
+     */
+    public ReconciliationResult reconcile() {
+        if (!drainCoordinator.tryEnter()) {
+            return null;
+        }
+        if (!running.compareAndSet(false, true)) {
+            drainCoordinator.exit();
+            log.info("Reconciliation already in progress, skipping");
+            return null;
+        }
+        try {
+            return reconcileStaleOrders();
+        } finally {
+            running.set(false);
+            drainCoordinator.exit();
+        }
+    }
+
+    /**
+     * Send the PDF email for PAID orders whose delivery never completed
+     * @return the number of emails delivered
+     */
+    public int redeliverPendingEmails() {
+        if (!drainCoordinator.tryEnter()) {
+            return 0;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<String> pending = jdbcTemplate.queryForList(PENDING_EMAILS_SQL, String.class,
+                    Timestamp.valueOf(now.minusMinutes(redeliverAfterMinutes)),
+                    Timestamp.valueOf(now.minusHours(redeliverLookbackHours)),
+                    pageSize);
+            int delivered = 0;
+            for (String razorpayOrderId : pending) {
+                if (drainCoordinator.isDraining()) {
+                    break;
+                }
+                if (deliverEmail(razorpayOrderId)) {
+                    delivered++;
+                }
+            }
+            if (!pending.isEmpty()) {
+                log.info("Redelivered {} of {} pending PDF emails", delivered, pending.size());
+            }
+            meterRegistry.counter("razorpay.reconcile.redelivered").increment(delivered);
+            return delivered;
+        } finally {
+            drainCoordinator.exit();
+        }
+    }
+
+    private ReconciliationResult reconcileStaleOrders() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp cutoff = Timestamp.valueOf(now.minusMinutes(staleAfterMinutes));
+        Timestamp lookback = Timestamp.valueOf(now.minusHours(lookbackHours));
+        long afterId = 0;
+        int scanned = 0;
+        int paid = 0;
+        int failed = 0;
+        int errors = 0;
+
+        while (true) {
+            List<StaleOrder> page = jdbcTemplate.query(STALE_ORDERS_SQL,
+                    (rs, rowNum) -> new StaleOrder(rs.getLong("id"), rs.getString("razorpay_order_id")),
+                    cutoff, lookback, afterId, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+            scanned += page.size();
+
+            List<CompletableFuture<Resolution>> lookups = page.stream()
+                    .map(order -> CompletableFuture.supplyAsync(() -> resolve(order), lookupPool))
+                    .toList();
+            List<Resolution> transitions = new ArrayList<>();
+            for (CompletableFuture<Resolution> lookup : lookups) {
+                Resolution resolution = lookup.join();
+                if (resolution.error()) {
+                    errors++;
+                } else if (resolution.status() != null) {
+                    transitions.add(resolution);
+                }
+            }
+
+            for (Resolution applied : apply(transitions)) {
+                salesMetricsStore.recordStatus(applied.status());
+                if (applied.status() == Order.OrderStatus.PAID) {
+                    paid++;
+                    deliverEmail(applied.order().razorpayOrderId());
+                } else {
+                    failed++;
+                }
+            }
+
+            // Stop at a page boundary on shutdown; the next instance picks up the rest
+            if (page.size() < pageSize || drainCoordinator.isDraining()) {
+                break;
+            }
+        }
+
+        ReconciliationResult result = new ReconciliationResult(scanned, paid, failed, errors,
+                System.currentTimeMillis() - start);
+        meterRegistry.counter("razorpay.reconcile.orders", "outcome", "paid").increment(paid);
+        meterRegistry.counter("razorpay.reconcile.orders", "outcome", "failed").increment(failed);
+        meterRegistry.counter("razorpay.reconcile.orders", "outcome", "error").increment(errors);
+        if (scanned > 0) {
+            log.info("Reconciliation fixed {} orders ({} paid, {} failed) of {} stale, {} lookup errors, in {} ms",
+                    paid + failed, paid, failed, scanned, errors, result.durationMs());
+        }
+        return result;
+    }
+
+    /**
+     * Decide the order's status from its Razorpay payments: any captured payment
+     * means PAID, only failed attempts means FAILED, anything else is left alone.
+     */
+    private Resolution resolve(StaleOrder order) {
+        try {
+            rateLimiter.acquire();
+            JsonNode payments = razorpayApiClient.fetchOrderPayments(order.razorpayOrderId());
+
+            String lastFailedPaymentId = null;
+            boolean pending = false;
+            for (JsonNode payment : payments) {
+                String status = payment.path("status").asText();
+                if ("captured".equals(status)) {
+                    return new Resolution(order, Order.OrderStatus.PAID, payment.path("id").asText(), false);
+                }
+                if ("failed".equals(status)) {
+                    lastFailedPaymentId = payment.path("id").asText();
+                } else {
+                    pending = true;
+                }
+            }
+            if (lastFailedPaymentId != null && !pending) {
+                return new Resolution(order, Order.OrderStatus.FAILED, lastFailedPaymentId, false);
+            }
+            return new Resolution(order, null, null, false);
+        } catch (RazorpayException e) {
+            log.warn("Could not fetch payments for order {}: {}", order.razorpayOrderId(), e.getMessage());
+            return new Resolution(order, null, null, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Resolution(order, null, null, true);
+        }
+    }
+
+    private List<Resolution> apply(List<Resolution> transitions) {
+        if (transitions.isEmpty()) {
+            return transitions;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = transitions.stream()
+                .map(t -> new Object[]{
+                        t.status().name(),
+                        t.paymentId(),
+                        t.status() == Order.OrderStatus.PAID ? now : null,
+                        t.order().id()
+                })
+                .toList();
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+
+        List<Resolution> applied = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                applied.add(transitions.get(i));
+            }
+        }
+        return applied;
+    }
+
+    private boolean deliverEmail(String razorpayOrderId) {
+        try {
+            boolean emailSent = paymentService.resendEmail(razorpayOrderId);
+            if (!emailSent) {
+                log.warn("Order {} is PAID but email delivery failed", razorpayOrderId);
+            }
+            return emailSent;
+        } catch (RuntimeException e) {
+            log.error("Order {} is PAID but email could not be sent", razorpayOrderId, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lookupPool.shutdownNow();
+    }
+
+    public record ReconciliationResult(int scanned, int paid, int failed, int errors, long durationMs) {
+
+        public int fixed() {
+            return paid + failed;
+        }
+    }
+
+    private record StaleOrder(long id, String razorpayOrderId) {
+    }
+
+    private record Resolution(StaleOrder order, Order.OrderStatus status, String paymentId, boolean error) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener that feeds every Order status transition into the
+ * SalesMetricsStore. Hibernate creates it through Spring while the
+ * EntityManagerFactory is being built; the store depends on a repository
+ * that needs that factory, so it is looked up lazily on first use.
+ */
+public class OrderStatusListener {
+
+    private final ObjectProvider<SalesMetricsStore> salesMetricsStore;
+
+    public OrderStatusListener(ObjectProvider<SalesMetricsStore> salesMetricsStore) {
+        this.salesMetricsStore = salesMetricsStore;
+    }
+
+    @PostLoad
+    void onLoad(Order order) {
+        order.setPersistedStatus(order.getStatus());
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Order order) {
+        if (order.getStatus() != null && order.getStatus() != order.getPersistedStatus()) {
+            salesMetricsStore.getObject().recordStatus(order.getStatus());
+            order.setPersistedStatus(order.getStatus());
+        }
+    }
+}
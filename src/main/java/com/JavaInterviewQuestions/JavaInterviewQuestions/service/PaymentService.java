@@ -1,12 +1,13 @@
 package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
 
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.CatalogProperties;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.OrderTracing;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
 import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
-import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
+import io.micrometer.observation.annotation.Observed;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -25,38 +26,56 @@ public class PaymentService {
     @Value("${razorpay.key.secret}")
     private String razorpayKeySecret;
     
-    @Value("${product.price}")
-    private Integer productPrice;
+    @Value("${razorpay.currency}")
+    private String currency;
     
     private final OrderRepository orderRepository;
     private final EmailService emailService;
+    private final RazorpayApiClient razorpayApiClient;
+    private final RazorpayOrderPool orderPool;
+    private final OrderTracing orderTracing;
+    private final CatalogProperties catalog;
     
-    public PaymentService(OrderRepository orderRepository, EmailService emailService) {
+    public PaymentService(OrderRepository orderRepository, EmailService emailService,
+                          RazorpayApiClient razorpayApiClient, RazorpayOrderPool orderPool,
+                          OrderTracing orderTracing, CatalogProperties catalog) {
         this.orderRepository = orderRepository;
         this.emailService = emailService;
+        this.razorpayApiClient = razorpayApiClient;
+        this.orderPool = orderPool;
+        this.orderTracing = orderTracing;
+        this.catalog = catalog;
     }
     
+    @Observed(name = "payment.service")
     public Order createOrder(User user) throws RazorpayException {
-        RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+        // The checkout page sells the default product, which is also what the warm pool is priced for
+        String productCode = catalog.defaultProduct();
+        int amount = getProductPrice() * 100; // in paise
         
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", productPrice * 100); // amount in paise
-        orderRequest.put("currency", "INR");
-        orderRequest.put("receipt", "order_" + System.currentTimeMillis());
-        
-        com.razorpay.Order razorpayOrder = client.orders.create(orderRequest);
+        // Use a pre-created order when the pool is enabled and warm, otherwise create one now
+        String razorpayOrderId = orderPool.acquire().orElse(null);
+        if (razorpayOrderId == null) {
+            razorpayOrderId = razorpayApiClient
+                    .createOrder(amount, currency, "order_" + System.currentTimeMillis())
+                    .path("id").asText();
+        }
+        orderTracing.tagCurrent(razorpayOrderId);
         
         Order order = Order.builder()
                 .user(user)
-                .razorpayOrderId(razorpayOrder.get("id"))
-                .amount(productPrice * 100)
+                .razorpayOrderId(razorpayOrderId)
+                .productCode(productCode)
+                .amount(amount)
                 .status(Order.OrderStatus.CREATED)
                 .build();
         
         return orderRepository.save(order);
     }
     
+    @Observed(name = "payment.service")
     public boolean verifyPayment(String orderId, String paymentId, String signature) {
+        orderTracing.tagCurrent(orderId);
         try {
             String payload = orderId + "|" + paymentId;
             String generatedSignature = hmacSha256(payload, razorpayKeySecret);
@@ -71,17 +90,22 @@ public class PaymentService {
      * Process successful payment and send email
      * @return true if email was sent successfully, false otherwise
      */
+    @Observed(name = "payment.service")
     public boolean processSuccessfulPayment(String orderId, String paymentId, String signature) {
-        Order order = orderRepository.findByRazorpayOrderId(orderId)
+        orderTracing.tagCurrent(orderId);
+        Order order = orderRepository.findWithUserByRazorpayOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
         order.setRazorpayPaymentId(paymentId);
         order.setRazorpaySignature(signature);
         order.setStatus(Order.OrderStatus.PAID);
         order.setPaidAt(LocalDateTime.now());
+        order.setEmailSent(false);
+        // Persist PAID before the SendGrid call, so a shutdown mid-send leaves a pending delivery, not a lost payment
+        order = orderRepository.save(order);
         
         // Send PDF via email and track status
-        boolean emailSent = emailService.sendPdfEmail(order.getUser());
+        boolean emailSent = emailService.sendPdfEmail(order);
         order.setEmailSent(emailSent);
         orderRepository.save(order);
         
@@ -93,15 +117,17 @@ public class PaymentService {
      * @param orderId the Razorpay order ID
      * @return true if email was sent successfully
      */
+    @Observed(name = "payment.service")
     public boolean resendEmail(String orderId) {
-        Order order = orderRepository.findByRazorpayOrderId(orderId)
+        orderTracing.tagCurrent(orderId);
+        Order order = orderRepository.findWithUserByRazorpayOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
         if (order.getStatus() != Order.OrderStatus.PAID) {
             throw new RuntimeException("Order is not paid");
         }
         
-        boolean emailSent = emailService.sendPdfEmail(order.getUser());
+        boolean emailSent = emailService.sendPdfEmail(order);
         order.setEmailSent(emailSent);
         orderRepository.save(order);
         
@@ -131,7 +157,7 @@ public class PaymentService {
     }
     
     public Integer getProductPrice() {
-        return productPrice;
+        return catalog.product(catalog.defaultProduct()).price();
     }
 }
 
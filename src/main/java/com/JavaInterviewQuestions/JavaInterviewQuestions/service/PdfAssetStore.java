@@ -0,0 +1,155 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.CatalogProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Memory-maps every product PDF once at startup and verifies its SHA-256,
+ * so attachments and downloads read the same off-heap region instead of
+ * re-reading the file into a byte[] per customer. A checksum mismatch fails
+ * startup; a missing file only disables that product's attachment.
+ */
+@Component
+@Slf4j
+public class PdfAssetStore {
+
+    private final CatalogProperties catalog;
+    private final ResourceLoader resourceLoader;
+    private final Map<String, PdfAsset> assets = new HashMap<>();
+
+    public PdfAssetStore(CatalogProperties catalog, ResourceLoader resourceLoader) {
+        this.catalog = catalog;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    void mapAssets() throws IOException {
+        for (Map.Entry<String, CatalogProperties.Product> entry : catalog.products().entrySet()) {
+            String code = entry.getKey();
+            CatalogProperties.Product product = entry.getValue();
+            Resource resource = resourceLoader.getResource(product.pdfPath());
+            if (!resource.exists()) {
+                log.warn("PDF for product {} not found at {}", code, product.pdfPath());
+                continue;
+            }
+
+            MappedByteBuffer region = map(localFile(code, resource));
+            String sha256 = sha256(region);
+            if (product.sha256() != null && !product.sha256().isBlank()
+                    && !product.sha256().equalsIgnoreCase(sha256)) {
+                throw new IllegalStateException("Checksum mismatch for product " + code + " at "
+                        + product.pdfPath() + ": expected " + product.sha256() + ", got " + sha256);
+            }
+            assets.put(code, new PdfAsset(code, product.attachmentName(), sha256, region));
+            log.info("Mapped PDF for product {} ({} bytes, sha256 {})", code, region.capacity(), sha256);
+        }
+    }
+
+    /**
+     * @param productCode the order's product code; null means the default product
+     * @return the mapped PDF, or empty if the product has no PDF on disk
+     */
+    public Optional<PdfAsset> find(String productCode) {
+        return Optional.ofNullable(assets.get(catalog.codeOrDefault(productCode)));
+    }
+
+    /**
+     * Files on disk are mapped in place; a resource packed inside the jar is
+     * copied out to a temp file first, since only real files can be mapped.
+     */
+    private static Path localFile(String code, Resource resource) throws IOException {
+        if (resource.isFile()) {
+            return resource.getFile().toPath();
+        }
+        Path copy = Files.createTempFile("pdf-" + code + "-", ".pdf");
+        copy.toFile().deleteOnExit();
+        try (InputStream in = resource.getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copy;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            region.load();
+            return region;
+        }
+    }
+
+    private static String sha256(ByteBuffer region) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(region.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    public static final class PdfAsset {
+
+        private final String productCode;
+        private final String filename;
+        private final String sha256;
+        @Getter(AccessLevel.NONE)
+        private final MappedByteBuffer region;
+
+        private PdfAsset(String productCode, String filename, String sha256, MappedByteBuffer region) {
+            this.productCode = productCode;
+            this.filename = filename;
+            this.sha256 = sha256;
+            this.region = region;
+        }
+
+        public long getSize() {
+            return region.capacity();
+        }
+
+        /**
+         * A read-only view over the shared mapping with its own position,
+         * so concurrent readers never disturb each other.
+         */
+        public ByteBuffer contents() {
+            return region.asReadOnlyBuffer();
+        }
+
+        /**
+         * Stream the PDF straight from the mapping in channel-sized chunks.
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            WritableByteChannel channel = Channels.newChannel(out);
+            ByteBuffer contents = contents();
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        }
+    }
+}
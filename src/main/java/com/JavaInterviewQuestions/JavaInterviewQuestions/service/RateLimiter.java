@@ -0,0 +1,36 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal blocking rate limiter that spaces permits evenly over time.
+ * Shared by the workers calling a rate-limited external API.
+ */
+public class RateLimiter {
+    
+    private final long intervalNanos;
+    private long nextFreeSlot = System.nanoTime();
+    
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+    
+    /**
+     * Block until the next permit is available.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextFreeSlot, now);
+            nextFreeSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
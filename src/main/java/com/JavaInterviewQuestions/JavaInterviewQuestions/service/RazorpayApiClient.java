@@ -0,0 +1,168 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.OrderTracing;
+import com.razorpay.RazorpayException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Thin Razorpay REST client with a configurable base URL, so it can be
+ * pointed at a local mock server. Retries 429 and 5xx responses and network
+ * errors with backoff. POSTs are only retried on 429: a timeout or 5xx may
+ * come after Razorpay has already created the order, and orders.create takes
+ * no idempotency key, so a retry could create a duplicate.
+ * Each call, retries included, is one "razorpay.api" observation (a client span
+ * when tracing is on) carrying the Razorpay order ID.
+ */
+@Component
+@Slf4j
+public class RazorpayApiClient {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ObservationRegistry observationRegistry;
+    private final String baseUrl;
+    private final String authorization;
+    private final Duration timeout;
+
+    public RazorpayApiClient(ObjectMapper objectMapper,
+                             ObservationRegistry observationRegistry,
+                             @Value("${razorpay.api.base-url}") String baseUrl,
+                             @Value("${razorpay.api.timeout-ms}") long timeoutMs,
+                             @Value("${razorpay.key.id}") String keyId,
+                             @Value("${razorpay.key.secret}") String keySecret) {
+        this.objectMapper = objectMapper;
+        this.observationRegistry = observationRegistry;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(this.timeout)
+                .build();
+    }
+
+    /**
+     * Fetch all payment attempts made against a Razorpay order
+     * @param razorpayOrderId the Razorpay order ID
+     * @return the "items" array of the payments collection
+     */
+    public JsonNode fetchOrderPayments(String razorpayOrderId) throws RazorpayException {
+        JsonNode collection = get("/v1/orders/" + razorpayOrderId + "/payments",
+                "/v1/orders/{id}/payments", razorpayOrderId);
+        return collection.path("items");
+    }
+
+    /**
+     * Create a Razorpay order
+     * @param amount amount in paise
+     * @param currency ISO currency code, e.g. INR
+     * @param receipt merchant receipt reference
+     * @return the created order entity; its "id" is the Razorpay order ID
+     */
+    public JsonNode createOrder(int amount, String currency, String receipt) throws RazorpayException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("amount", amount)
+                .put("currency", currency)
+                .put("receipt", receipt);
+        return post("/v1/orders", body);
+    }
+
+    private JsonNode post(String path, JsonNode body) throws RazorpayException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        // The order ID only exists once Razorpay has answered
+        return observe(request, path, null);
+    }
+
+    private JsonNode get(String path, String endpoint, String razorpayOrderId) throws RazorpayException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return observe(request, endpoint, razorpayOrderId);
+    }
+
+    private JsonNode observe(HttpRequest request, String endpoint, String razorpayOrderId) throws RazorpayException {
+        Observation observation = Observation.createNotStarted("razorpay.api", observationRegistry)
+                .contextualName("razorpay " + request.method() + " " + endpoint)
+                .lowCardinalityKeyValue("http.method", request.method())
+                .lowCardinalityKeyValue("endpoint", endpoint);
+        if (razorpayOrderId != null) {
+            observation.highCardinalityKeyValue(OrderTracing.RAZORPAY_ORDER_ID, razorpayOrderId);
+        }
+        observation.start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            JsonNode result = execute(request);
+            if (razorpayOrderId == null && result.hasNonNull("id")) {
+                observation.highCardinalityKeyValue(OrderTracing.RAZORPAY_ORDER_ID, result.get("id").asText());
+            }
+            return result;
+        } catch (RazorpayException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private JsonNode execute(HttpRequest request) throws RazorpayException {
+        String path = request.uri().getPath();
+        boolean idempotent = !"POST".equals(request.method());
+        long backoffMs = 500;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long waitMs = backoffMs;
+                try {
+                    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                    int status = response.statusCode();
+                    if (status >= 200 && status < 300) {
+                        return objectMapper.readTree(response.body());
+                    }
+                    // 429 means the request was rejected unprocessed, so even a POST is safe to resend
+                    boolean retryable = status == 429 || (idempotent && status >= 500);
+                    if (!retryable || attempt >= MAX_ATTEMPTS) {
+                        throw new RazorpayException("Razorpay API " + path + " returned " + status);
+                    }
+                    // Honour Retry-After (seconds) when Razorpay rate-limits us
+                    waitMs = Math.max(backoffMs, response.headers().firstValueAsLong("Retry-After").orElse(0L) * 1000);
+                    log.debug("Razorpay API {} returned {}, retrying in {} ms", path, status, waitMs);
+                } catch (IOException e) {
+                    if (!idempotent || attempt >= MAX_ATTEMPTS) {
+                        throw new RazorpayException("Razorpay API " + path + " failed: " + e.getMessage());
+                    }
+                    log.debug("Razorpay API {} failed: {}, retrying in {} ms", path, e.getMessage(), waitMs);
+                }
+                Thread.sleep(waitMs);
+                backoffMs *= 2;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException("Interrupted calling Razorpay API " + path);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.CatalogProperties;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional warm pool of pre-created Razorpay orders for the default catalog
+ * product, taking the orders.create round-trip off the checkout path. Each
+ * pooled order is handed out to exactly one checkout; the pool refills in the
+ * background and discards orders older than the configured max age.
+ */
+@Component
+@Slf4j
+public class RazorpayOrderPool {
+
+    private final RazorpayApiClient razorpayApiClient;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int targetSize;
+    private final Duration maxAge;
+    private final int amount;
+    private final String currency;
+    private final ConcurrentLinkedQueue<PooledOrder> pool = new ConcurrentLinkedQueue<>();
+    // Pooled plus in-flight creations, so concurrent refills never overshoot the target
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final ExecutorService refillers;
+
+    public RazorpayOrderPool(RazorpayApiClient razorpayApiClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${razorpay.order-pool.enabled}") boolean enabled,
+                             @Value("${razorpay.order-pool.size}") int targetSize,
+                             @Value("${razorpay.order-pool.max-age-minutes}") long maxAgeMinutes,
+                             @Value("${razorpay.order-pool.refill-concurrency}") int refillConcurrency,
+                             CatalogProperties catalog,
+                             @Value("${razorpay.currency}") String currency) {
+        this.razorpayApiClient = razorpayApiClient;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.targetSize = targetSize;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.amount = catalog.product(catalog.defaultProduct()).price() * 100; // in paise
+        this.currency = currency;
+        this.refillers = Executors.newFixedThreadPool(Math.max(refillConcurrency, 1));
+        Gauge.builder("razorpay.order_pool.size", pool, ConcurrentLinkedQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Take a pre-created order for the default product's price
+     * @return a Razorpay order ID, or empty if the pool is disabled or drained
+     */
+    public Optional<String> acquire() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            Instant now = Instant.now();
+            PooledOrder order;
+            while ((order = pool.poll()) != null) {
+                reserved.decrementAndGet();
+                if (!order.isExpired(now, maxAge)) {
+                    meterRegistry.counter("razorpay.order_pool.acquire", "outcome", "hit").increment();
+                    return Optional.of(order.razorpayOrderId());
+                }
+                meterRegistry.counter("razorpay.order_pool.expired").increment();
+            }
+            meterRegistry.counter("razorpay.order_pool.acquire", "outcome", "miss").increment();
+            return Optional.empty();
+        } finally {
+            refill();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            log.info("Warming Razorpay order pool to {} orders", targetSize);
+            refill();
+        }
+    }
+
+    /**
+     * Drop orders past their max age and top the pool back up.
+     */
+    @Scheduled(fixedDelayString = "${razorpay.order-pool.eviction-interval-ms}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        pool.removeIf(order -> {
+            if (order.isExpired(now, maxAge)) {
+                reserved.decrementAndGet();
+                meterRegistry.counter("razorpay.order_pool.expired").increment();
+                return true;
+            }
+            return false;
+        });
+        refill();
+    }
+
+    private void refill() {
+        int current;
+        while ((current = reserved.get()) < targetSize) {
+            if (reserved.compareAndSet(current, current + 1)) {
+                try {
+                    refillers.execute(this::createPooledOrder);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: give the slot back and let checkout carry on without a refill
+                    reserved.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void createPooledOrder() {
+        try {
+            String receipt = "pool_" + System.currentTimeMillis();
+            String razorpayOrderId = razorpayApiClient.createOrder(amount, currency, receipt).path("id").asText();
+            pool.offer(new PooledOrder(razorpayOrderId, Instant.now()));
+        } catch (RazorpayException e) {
+            // Leave the slot free; the next acquire or eviction run retries
+            reserved.decrementAndGet();
+            log.warn("Could not pre-create Razorpay order: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refillers.shutdownNow();
+    }
+
+    private record PooledOrder(String razorpayOrderId, Instant createdAt) {
+
+        boolean isExpired(Instant now, Duration maxAge) {
+            return createdAt.plus(maxAge).isBefore(now);
+        }
+    }
+}
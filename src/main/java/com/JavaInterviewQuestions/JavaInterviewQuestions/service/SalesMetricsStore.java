@@ -0,0 +1,239 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.SalesSummary;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.SalesSummaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory per-minute and per-day sales counters, updated incrementally as
+ * orders change status and emails go out. Reads cost O(buckets requested)
+ * instead of a scan over the orders table. Buckets are snapshotted to
+ * sales_summary periodically and reloaded on startup; increments since the
+ * last snapshot are lost on a crash.
+ */
+@Component
+@Slf4j
+public class SalesMetricsStore {
+
+    private final SalesSummaryRepository summaryRepository;
+    private final int minuteRetention;
+    private final int dayRetention;
+    private final ConcurrentHashMap<LocalDateTime, Bucket> minuteBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, Bucket> dayBuckets = new ConcurrentHashMap<>();
+
+    public SalesMetricsStore(SalesSummaryRepository summaryRepository,
+                             @Value("${sales.dashboard.minute-retention}") int minuteRetention,
+                             @Value("${sales.dashboard.day-retention}") int dayRetention) {
+        this.summaryRepository = summaryRepository;
+        this.minuteRetention = minuteRetention;
+        this.dayRetention = dayRetention;
+    }
+
+    public void record(Event event) {
+        LocalDateTime now = LocalDateTime.now();
+        minuteBuckets.computeIfAbsent(now.truncatedTo(ChronoUnit.MINUTES), key -> new Bucket()).increment(event);
+        dayBuckets.computeIfAbsent(now.toLocalDate(), key -> new Bucket()).increment(event);
+    }
+
+    public void recordStatus(Order.OrderStatus status) {
+        record(Event.forStatus(status));
+    }
+
+    /**
+     * Build the dashboard for the latest minutes and days
+     * @param minutes number of minute buckets to include, capped by retention
+     * @param days number of day buckets to include, capped by retention
+     */
+    public Map<String, Object> dashboard(int minutes, int days) {
+        LocalDateTime currentMinute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDate today = currentMinute.toLocalDate();
+
+        List<Map<String, Object>> minuteSeries = new ArrayList<>();
+        for (int i = Math.min(minutes, minuteRetention) - 1; i >= 0; i--) {
+            LocalDateTime minute = currentMinute.minusMinutes(i);
+            minuteSeries.add(bucketView("minute", minute, minuteBuckets.get(minute)));
+        }
+
+        List<Map<String, Object>> daySeries = new ArrayList<>();
+        for (int i = Math.min(days, dayRetention) - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            daySeries.add(bucketView("date", day, dayBuckets.get(day)));
+        }
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("generatedAt", LocalDateTime.now());
+        dashboard.put("today", bucketView("date", today, dayBuckets.get(today)));
+        dashboard.put("days", daySeries);
+        dashboard.put("minutes", minuteSeries);
+        return dashboard;
+    }
+
+    private Map<String, Object> bucketView(String keyName, Object key, Bucket bucket) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put(keyName, key);
+        for (Event event : Event.values()) {
+            view.put(event.getField(), bucket != null ? bucket.get(event) : 0L);
+        }
+        long created = bucket != null ? bucket.get(Event.ORDER_CREATED) : 0;
+        long paid = bucket != null ? bucket.get(Event.ORDER_PAID) : 0;
+        long emailsSent = bucket != null ? bucket.get(Event.EMAIL_SENT) : 0;
+        long emailsFailed = bucket != null ? bucket.get(Event.EMAIL_FAILED) : 0;
+        view.put("conversionRate", created > 0 ? (double) paid / created : 0.0);
+        view.put("emailFailureRate", emailsSent + emailsFailed > 0
+                ? (double) emailsFailed / (emailsSent + emailsFailed) : 0.0);
+        return view;
+    }
+
+    @PostConstruct
+    void restore() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SalesSummary> rows = new ArrayList<>();
+        rows.addAll(summaryRepository.findByGranularityAndBucketStartGreaterThanEqual(
+                SalesSummary.Granularity.MINUTE, now.minusMinutes(minuteRetention)));
+        rows.addAll(summaryRepository.findByGranularityAndBucketStartGreaterThanEqual(
+                SalesSummary.Granularity.DAY, now.toLocalDate().minusDays(dayRetention).atStartOfDay()));
+
+        for (SalesSummary row : rows) {
+            Bucket bucket = new Bucket();
+            bucket.load(row);
+            if (row.getGranularity() == SalesSummary.Granularity.MINUTE) {
+                minuteBuckets.put(row.getBucketStart(), bucket);
+            } else {
+                dayBuckets.put(row.getBucketStart().toLocalDate(), bucket);
+            }
+        }
+        log.info("Restored {} sales dashboard buckets", rows.size());
+    }
+
+    /**
+     * Persist every bucket touched since the last snapshot and drop expired ones.
+     */
+    @Scheduled(fixedDelayString = "${sales.dashboard.snapshot-interval-ms}",
+            initialDelayString = "${sales.dashboard.snapshot-interval-ms}")
+    @PreDestroy
+    public void snapshot() {
+        List<SalesSummary> rows = new ArrayList<>();
+        minuteBuckets.forEach((minute, bucket) -> {
+            if (bucket.clearDirty()) {
+                rows.add(bucket.toSummary(SalesSummary.Granularity.MINUTE, minute));
+            }
+        });
+        dayBuckets.forEach((day, bucket) -> {
+            if (bucket.clearDirty()) {
+                rows.add(bucket.toSummary(SalesSummary.Granularity.DAY, day.atStartOfDay()));
+            }
+        });
+        if (!rows.isEmpty()) {
+            summaryRepository.saveAll(rows);
+        }
+
+        LocalDateTime minuteCutoff = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(minuteRetention);
+        LocalDate dayCutoff = LocalDate.now().minusDays(dayRetention);
+        minuteBuckets.keySet().removeIf(minute -> minute.isBefore(minuteCutoff));
+        dayBuckets.keySet().removeIf(day -> day.isBefore(dayCutoff));
+        summaryRepository.deleteOlderThan(SalesSummary.Granularity.MINUTE, minuteCutoff);
+        summaryRepository.deleteOlderThan(SalesSummary.Granularity.DAY, dayCutoff.atStartOfDay());
+
+        log.debug("Snapshotted {} sales dashboard buckets", rows.size());
+    }
+
+    public enum Event {
+        ORDER_CREATED("ordersCreated"),
+        ORDER_PAID("ordersPaid"),
+        ORDER_FAILED("ordersFailed"),
+        ORDER_REFUNDED("ordersRefunded"),
+        EMAIL_SENT("emailsSent"),
+        EMAIL_FAILED("emailsFailed");
+
+        private final String field;
+
+        Event(String field) {
+            this.field = field;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public static Event forStatus(Order.OrderStatus status) {
+            return switch (status) {
+                case CREATED -> ORDER_CREATED;
+                case PAID -> ORDER_PAID;
+                case FAILED -> ORDER_FAILED;
+                case REFUNDED -> ORDER_REFUNDED;
+            };
+        }
+    }
+
+    private static final class Bucket {
+
+        // LongAdder stripes its cells per thread, so concurrent checkouts do not contend
+        private final LongAdder[] counters = new LongAdder[Event.values().length];
+        private volatile boolean dirty;
+
+        Bucket() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new LongAdder();
+            }
+        }
+
+        void increment(Event event) {
+            counters[event.ordinal()].increment();
+            if (!dirty) {
+                dirty = true;
+            }
+        }
+
+        long get(Event event) {
+            return counters[event.ordinal()].sum();
+        }
+
+        boolean clearDirty() {
+            if (!dirty) {
+                return false;
+            }
+            // Cleared before reading, so an increment racing with the snapshot marks it again
+            dirty = false;
+            return true;
+        }
+
+        void load(SalesSummary row) {
+            counters[Event.ORDER_CREATED.ordinal()].add(row.getOrdersCreated());
+            counters[Event.ORDER_PAID.ordinal()].add(row.getOrdersPaid());
+            counters[Event.ORDER_FAILED.ordinal()].add(row.getOrdersFailed());
+            counters[Event.ORDER_REFUNDED.ordinal()].add(row.getOrdersRefunded());
+            counters[Event.EMAIL_SENT.ordinal()].add(row.getEmailsSent());
+            counters[Event.EMAIL_FAILED.ordinal()].add(row.getEmailsFailed());
+        }
+
+        SalesSummary toSummary(SalesSummary.Granularity granularity, LocalDateTime start) {
+            return SalesSummary.builder()
+                    .bucketKey(granularity + ":" + start)
+                    .granularity(granularity)
+                    .bucketStart(start)
+                    .ordersCreated(get(Event.ORDER_CREATED))
+                    .ordersPaid(get(Event.ORDER_PAID))
+                    .ordersFailed(get(Event.ORDER_FAILED))
+                    .ordersRefunded(get(Event.ORDER_REFUNDED))
+                    .emailsSent(get(Event.EMAIL_SENT))
+                    .emailsFailed(get(Event.EMAIL_FAILED))
+                    .build();
+        }
+    }
+}
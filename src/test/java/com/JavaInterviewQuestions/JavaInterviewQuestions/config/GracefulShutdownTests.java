@@ -0,0 +1,133 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.JavaInterviewQuestionsApplication;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closes the application context (what SIGTERM triggers) while /payment/verify
+ * is blocked inside a slow SendGrid call, and checks that the payment and its
+ * email complete while new payment work and readiness are refused.
+ */
+class GracefulShutdownTests {
+
+    private static final String KEY_SECRET = "shutdown-key-secret";
+    private static final String DB_URL = "jdbc:h2:mem:shutdown;DB_CLOSE_DELAY=-1";
+    private static final long SENDGRID_LATENCY_MS = 3000;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ProviderStubs stubs = new ProviderStubs().sendGridLatencyMs(SENDGRID_LATENCY_MS);
+
+    @AfterEach
+    void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void drainsInFlightPaymentWhenShutdownArrivesMidSend() throws Exception {
+        // Command-line arguments, since builder properties are only defaults that application.properties overrides
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaInterviewQuestionsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + DB_URL,
+                        "--razorpay.key.secret=" + KEY_SECRET,
+                        "--razorpay.reconcile.enabled=false",
+                        "--sendgrid.api.key=SG.shutdown",
+                        "--sendgrid.api.plain-http=true",
+                        "--sendgrid.api.host=localhost:" + stubs.port());
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        DrainCoordinator drainCoordinator = context.getBean(DrainCoordinator.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .name("Drain").email("drain@example.com").phoneNumber("9000000000").build());
+        context.getBean(OrderRepository.class).save(Order.builder()
+                .user(user).razorpayOrderId("order_drain").amount(14900).build());
+
+        String body = """
+                {"razorpayOrderId":"order_drain","razorpayPaymentId":"pay_drain","razorpaySignature":"%s"}
+                """.formatted(hmacSha256("order_drain|pay_drain"));
+        CompletableFuture<HttpResponse<String>> verify = http.sendAsync(
+                HttpRequest.newBuilder(uri(port, "/payment/verify"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        await(() -> stubs.mailsReceived() > 0, 10);
+        assertThat(stubs.mailsReceived()).isEqualTo(1);
+
+        // SIGTERM: the JVM shutdown hook closes the context
+        Thread shutdown = new Thread(context::close);
+        shutdown.start();
+        await(drainCoordinator::isDraining, 5);
+        assertThat(drainCoordinator.isDraining()).isTrue();
+
+        HttpResponse<String> newWork = http.send(HttpRequest.newBuilder(uri(port, "/payment/resend-email"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"orderId\":\"order_drain\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(newWork.statusCode()).isEqualTo(503);
+        HttpResponse<String> readiness = http.send(HttpRequest.newBuilder(uri(port, "/actuator/health/readiness"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(readiness.statusCode()).isEqualTo(503);
+
+        HttpResponse<String> verified = verify.get(30, TimeUnit.SECONDS);
+        assertThat(verified.statusCode()).isEqualTo(200);
+        assertThat(verified.body()).contains("\"success\":true").contains("\"emailSent\":true");
+
+        shutdown.join(TimeUnit.SECONDS.toMillis(30));
+        assertThat(context.isActive()).isFalse();
+        assertThat(stubs.mailsSent()).isEqualTo(1);
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet order = statement.executeQuery(
+                     "select status, email_sent from orders where razorpay_order_id = 'order_drain'")) {
+            assertThat(order.next()).isTrue();
+            assertThat(order.getString("status")).isEqualTo("PAID");
+            assertThat(order.getBoolean("email_sent")).isTrue();
+        }
+    }
+
+    private static void await(BooleanSupplier condition, long seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String hmacSha256(String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(KEY_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
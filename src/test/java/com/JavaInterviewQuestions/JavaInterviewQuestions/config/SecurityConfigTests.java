@@ -0,0 +1,46 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admin POSTs over HTTP Basic are only accepted without a CSRF token when they
+ * carry the admin API header, which a cross-site form cannot set.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false",
+        "spring.security.user.password=secret"
+})
+@AutoConfigureMockMvc
+class SecurityConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void adminPostWithoutHeaderIsRejected() throws Exception {
+        mockMvc.perform(post("/admin/reconcile").with(httpBasic("admin", "secret")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminPostWithHeaderIsAccepted() throws Exception {
+        mockMvc.perform(post("/admin/reconcile").with(httpBasic("admin", "secret"))
+                        .header(SecurityConfig.ADMIN_API_HEADER, "XMLHttpRequest"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void adminPostWithHeaderStillNeedsCredentials() throws Exception {
+        mockMvc.perform(post("/admin/reconcile").header(SecurityConfig.ADMIN_API_HEADER, "XMLHttpRequest"))
+                .andExpect(status().isUnauthorized());
+    }
+}
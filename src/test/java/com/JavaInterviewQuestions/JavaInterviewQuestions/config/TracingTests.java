@@ -0,0 +1,66 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.config;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.PaymentService;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false",
+        "management.tracing.enabled=true",
+        "tracing.tail-sampling.slow-threshold-ms=60000"
+})
+@Import(TracingTests.InMemoryExporterConfig.class)
+class TracingTests {
+
+    private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+    private static final AttributeKey<String> RAZORPAY_ORDER_ID = AttributeKey.stringKey(OrderTracing.RAZORPAY_ORDER_ID);
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Test
+    void keepsErroredTracesAndDropsFastSuccessfulOnes() {
+        paymentService.verifyPayment("order_fast", "pay_fast", "not-a-signature");
+        assertThatThrownBy(() -> paymentService.resendEmail("order_missing")).hasMessage("Order not found");
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertThat(spans).anySatisfy(span -> {
+            assertThat(span.getAttributes().get(METHOD)).isEqualTo("resendEmail");
+            assertThat(span.getAttributes().get(RAZORPAY_ORDER_ID)).isEqualTo("order_missing");
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        });
+        assertThat(spans).noneMatch(span -> "verifyPayment".equals(span.getAttributes().get(METHOD)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.controller;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.DownloadLinkSigner;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.service.PdfAssetStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The download endpoint is public, so it only serves a PAID order's PDF to a
+ * signed, unexpired link issued for that same order.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:download;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false",
+        "download.link.secret=download-test-secret",
+        "app.base-url=https://shop.example.com/"
+})
+@AutoConfigureMockMvc
+class PdfDownloadTests {
+
+    private static final String PAID = "order_download_paid";
+    private static final String CREATED = "order_download_created";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DownloadLinkSigner downloadLinkSigner;
+
+    @Autowired
+    private PdfAssetStore pdfAssetStore;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void orders() {
+        if (orderRepository.findByRazorpayOrderId(PAID).isPresent()) {
+            return;
+        }
+        User user = userRepository.save(User.builder()
+                .name("Download").email("download@example.com").phoneNumber("9000000000").build());
+        Order paid = orderRepository.save(Order.builder().user(user).razorpayOrderId(PAID).amount(14900).build());
+        paid.setStatus(Order.OrderStatus.PAID);
+        orderRepository.save(paid);
+        orderRepository.save(Order.builder().user(user).razorpayOrderId(CREATED).amount(14900).build());
+    }
+
+    @Test
+    void signedLinkDownloadsPaidOrderPdf() throws Exception {
+        String link = downloadLinkSigner.link(PAID);
+        assertThat(link).startsWith("https://shop.example.com/payment/download/" + PAID + "?token=");
+        long size = pdfAssetStore.find(null).orElseThrow().getSize();
+
+        byte[] body = mockMvc.perform(get(link.substring("https://shop.example.com".length())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(header().longValue("Content-Length", size))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).hasSize((int) size);
+    }
+
+    @Test
+    void signedLinkForUnpaidOrderIsNotFound() throws Exception {
+        mockMvc.perform(get("/payment/download/" + CREATED).param("token", token(CREATED)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void missingForgedOrExpiredTokenIsForbidden() throws Exception {
+        mockMvc.perform(get("/payment/download/" + PAID))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/payment/download/" + PAID).param("token", "not-a-token"))
+                .andExpect(status().isForbidden());
+        // A valid link for one order does not open another
+        mockMvc.perform(get("/payment/download/" + PAID).param("token", token(CREATED)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/payment/download/" + PAID)
+                        .param("token", downloadLinkSigner.token(PAID, Instant.now().minusSeconds(60))))
+                .andExpect(status().isForbidden());
+    }
+
+    private String token(String orderId) {
+        return downloadLinkSigner.token(orderId, Instant.now().plusSeconds(3600));
+    }
+}
@@ -0,0 +1,60 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects latency samples and errors for one step of the load test.
+ */
+class LatencyRecorder {
+
+    private final long[] samplesNanos;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong errors = new AtomicLong();
+
+    LatencyRecorder(int capacity) {
+        this.samplesNanos = new long[capacity];
+    }
+
+    void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < samplesNanos.length) {
+            samplesNanos[index] = nanos;
+        }
+    }
+
+    void error() {
+        errors.incrementAndGet();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    Map<String, Object> summary() {
+        long[] sorted = Arrays.copyOf(samplesNanos, Math.min(count.get(), samplesNanos.length));
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", sorted.length);
+        summary.put("errors", errors.get());
+        summary.put("meanMs", sorted.length > 0 ? Arrays.stream(sorted).average().orElse(0) / 1_000_000 : 0.0);
+        summary.put("p50Ms", percentileMs(sorted, 0.50));
+        summary.put("p90Ms", percentileMs(sorted, 0.90));
+        summary.put("p95Ms", percentileMs(sorted, 0.95));
+        summary.put("p99Ms", percentileMs(sorted, 0.99));
+        summary.put("maxMs", sorted.length > 0 ? sorted[sorted.length - 1] / 1_000_000.0 : 0.0);
+        return summary;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(sorted.length * percentile) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
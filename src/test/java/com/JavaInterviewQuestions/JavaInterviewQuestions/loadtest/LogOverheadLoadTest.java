@@ -0,0 +1,123 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.loadtest;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.JavaInterviewQuestionsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what logging costs on the purchase path. Boots the app twice
+ * against the same provider stubs, once with the default async appender and
+ * once with the sync-logging profile, runs the same warm-up and measured
+ * journeys against each, and writes both summaries plus the differences
+ * (sync minus async) as JSON.
+ *
+ * Run with: ./mvnw -Ploadtest test -Dtest=LogOverheadLoadTest
+ * Takes the same -Dloadtest.* settings as {@link PurchaseFlowLoadTest}, plus
+ * -Dloadtest.warmup-journeys and -Dloadtest.log-overhead-report. Do not set
+ * spring.profiles.active; each run picks its own logging profile.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LogOverheadLoadTest {
+
+    private static final String SYNC_LOGGING = "sync-logging";
+
+    private static final int JOURNEYS = Integer.getInteger("loadtest.journeys", 500);
+    private static final int WARMUP_JOURNEYS = Integer.getInteger("loadtest.warmup-journeys", 100);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 20);
+    private static final long RAZORPAY_LATENCY_MS = Long.getLong("loadtest.razorpay-latency-ms", 50);
+    private static final long SENDGRID_LATENCY_MS = Long.getLong("loadtest.sendgrid-latency-ms", 100);
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.log-overhead-report",
+            "target/loadtest/log-overhead.json"));
+
+    @Test
+    void comparesAsyncAndSyncLogging() throws Exception {
+        Instant start = Instant.now();
+        Map<String, Object> async;
+        Map<String, Object> sync;
+        try (ProviderStubs stubs = new ProviderStubs()
+                .razorpayLatencyMs(RAZORPAY_LATENCY_MS)
+                .sendGridLatencyMs(SENDGRID_LATENCY_MS)) {
+            async = measure(stubs, false);
+            sync = measure(stubs, true);
+        }
+
+        Map<String, Object> difference = new LinkedHashMap<>();
+        double asyncThroughput = (double) async.get("throughputJourneysPerSec");
+        double syncThroughput = (double) sync.get("throughputJourneysPerSec");
+        difference.put("throughputChangePct", (syncThroughput - asyncThroughput) * 100 / asyncThroughput);
+        for (String step : new String[]{"journey", "createOrder", "verify", "webhook"}) {
+            Map<String, Object> stepDifference = new LinkedHashMap<>();
+            for (String percentile : new String[]{"p50Ms", "p95Ms", "p99Ms"}) {
+                stepDifference.put(percentile, latency(sync, step, percentile) - latency(async, step, percentile));
+            }
+            difference.put(step, stepDifference);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", start.toString());
+        report.put("warmupJourneys", WARMUP_JOURNEYS);
+        report.put("razorpayStubLatencyMs", RAZORPAY_LATENCY_MS);
+        report.put("sendGridStubLatencyMs", SENDGRID_LATENCY_MS);
+        report.put("async", async);
+        report.put("sync", sync);
+        report.put("syncMinusAsync", difference);
+
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        new ObjectMapper().writer(SerializationFeature.INDENT_OUTPUT).writeValue(REPORT.toFile(), report);
+        System.out.println("Log overhead report written to " + REPORT.toAbsolutePath());
+
+        assertThat(async.get("errors")).isEqualTo(0L);
+        assertThat(sync.get("errors")).isEqualTo(0L);
+    }
+
+    private Map<String, Object> measure(ProviderStubs stubs, boolean syncLogging) throws Exception {
+        String mode = syncLogging ? "sync" : "async";
+        // Command-line arguments, since builder properties are only defaults that application.properties overrides
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:logoverhead-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--razorpay.key.id=rzp_test_loadtest",
+                "--razorpay.key.secret=" + PurchaseJourneys.KEY_SECRET,
+                "--razorpay.webhook.secret=" + PurchaseJourneys.WEBHOOK_SECRET,
+                "--razorpay.reconcile.enabled=false",
+                "--sendgrid.api.key=SG.loadtest"));
+        stubs.properties().forEach((key, value) -> args.add("--" + key + "=" + value));
+        SpringApplicationBuilder app = new SpringApplicationBuilder(JavaInterviewQuestionsApplication.class);
+        if (syncLogging) {
+            app.profiles(SYNC_LOGGING);
+        }
+        try (ConfigurableApplicationContext context = app.run(args.toArray(String[]::new))) {
+            assertThat(context.getEnvironment().acceptsProfiles(Profiles.of(SYNC_LOGGING))).isEqualTo(syncLogging);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            new PurchaseJourneys(port, objectMapper, stubs, WARMUP_JOURNEYS, CONCURRENCY).run();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("profiles", context.getEnvironment().getActiveProfiles());
+            summary.putAll(new PurchaseJourneys(port, objectMapper, stubs, JOURNEYS, CONCURRENCY).run());
+            return summary;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double latency(Map<String, Object> summary, String step, String percentile) {
+        Map<String, Object> latency = (Map<String, Object>) summary.get("latency");
+        return (double) ((Map<String, Object>) latency.get(step)).get(percentile);
+    }
+}
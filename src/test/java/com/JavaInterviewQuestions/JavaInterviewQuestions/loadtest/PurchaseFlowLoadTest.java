@@ -0,0 +1,91 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives concurrent purchase journeys (create-order, verify, webhook) against
+ * the running app with Razorpay and SendGrid replaced by local stubs, and
+ * writes throughput, latency percentiles and error counts as JSON.
+ *
+ * Run with: ./mvnw -Ploadtest test
+ * Tune with -Dloadtest.journeys, -Dloadtest.concurrency, -Dloadtest.razorpay-latency-ms,
+ * -Dloadtest.sendgrid-latency-ms and -Dloadtest.report. {@link LogOverheadLoadTest}
+ * compares async and synchronous logging under the same load.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "razorpay.key.id=rzp_test_loadtest",
+        "razorpay.key.secret=" + PurchaseJourneys.KEY_SECRET,
+        "razorpay.webhook.secret=" + PurchaseJourneys.WEBHOOK_SECRET,
+        "razorpay.reconcile.enabled=false",
+        "sendgrid.api.key=SG.loadtest"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PurchaseFlowLoadTest {
+
+    private static final int JOURNEYS = Integer.getInteger("loadtest.journeys", 500);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 20);
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "target/loadtest/purchase-flow.json"));
+
+    private static final ProviderStubs stubs = new ProviderStubs()
+            .razorpayLatencyMs(Long.getLong("loadtest.razorpay-latency-ms", 50))
+            .sendGridLatencyMs(Long.getLong("loadtest.sendgrid-latency-ms", 100));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        stubs.registerProperties(registry);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void purchaseJourneysUnderLoad() throws Exception {
+        Instant start = Instant.now();
+        PurchaseJourneys journeys = new PurchaseJourneys(port, objectMapper, stubs, JOURNEYS, CONCURRENCY);
+        Map<String, Object> summary = journeys.run();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", start.toString());
+        report.put("profiles", environment.getActiveProfiles());
+        report.put("razorpayStubLatencyMs", Long.getLong("loadtest.razorpay-latency-ms", 50));
+        report.put("sendGridStubLatencyMs", Long.getLong("loadtest.sendgrid-latency-ms", 100));
+        report.putAll(summary);
+
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(REPORT.toFile(), report);
+        System.out.println("Load test report written to " + REPORT.toAbsolutePath());
+
+        assertThat(journeys.errors()).isZero();
+    }
+}
@@ -0,0 +1,200 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One batch of concurrent purchase journeys (create-order, verify, webhook)
+ * against a running app, summarised as throughput, latency percentiles and
+ * error counts. The app must use {@link #KEY_SECRET} and {@link #WEBHOOK_SECRET}.
+ */
+class PurchaseJourneys {
+
+    static final String KEY_SECRET = "loadtest-key-secret";
+    static final String WEBHOOK_SECRET = "loadtest-webhook-secret";
+
+    private static final Pattern ORDER_ID = Pattern.compile("\"order_id\":\\s*\"([^\"]+)\"");
+
+    private final int port;
+    private final ObjectMapper objectMapper;
+    private final ProviderStubs stubs;
+    private final int journeys;
+    private final int concurrency;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final LatencyRecorder createOrder;
+    private final LatencyRecorder verify;
+    private final LatencyRecorder webhook;
+    private final LatencyRecorder journey;
+
+    PurchaseJourneys(int port, ObjectMapper objectMapper, ProviderStubs stubs, int journeys, int concurrency) {
+        this.port = port;
+        this.objectMapper = objectMapper;
+        this.stubs = stubs;
+        this.journeys = journeys;
+        this.concurrency = concurrency;
+        this.createOrder = new LatencyRecorder(journeys);
+        this.verify = new LatencyRecorder(journeys);
+        this.webhook = new LatencyRecorder(journeys);
+        this.journey = new LatencyRecorder(journeys);
+    }
+
+    /**
+     * Run every journey and return the summary; call once per instance.
+     */
+    Map<String, Object> run() throws Exception {
+        long ordersBefore = stubs.ordersCreated();
+        long mailsBefore = stubs.mailsSent();
+
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < journeys; i++) {
+            int journeyId = i;
+            results.add(users.submit(() -> runJourney(journeyId)));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        users.shutdown();
+        users.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("journeys", journeys);
+        summary.put("concurrency", concurrency);
+        summary.put("durationMs", elapsedMs);
+        summary.put("throughputJourneysPerSec", journeys * 1000.0 / Math.max(elapsedMs, 1));
+        summary.put("errors", errors());
+        summary.put("razorpayOrdersCreated", stubs.ordersCreated() - ordersBefore);
+        summary.put("sendGridMailsSent", stubs.mailsSent() - mailsBefore);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("journey", journey.summary());
+        latency.put("createOrder", createOrder.summary());
+        latency.put("verify", verify.summary());
+        latency.put("webhook", webhook.summary());
+        summary.put("latency", latency);
+        return summary;
+    }
+
+    long errors() {
+        return createOrder.errors() + verify.errors() + webhook.errors();
+    }
+
+    private void runJourney(int journeyId) {
+        String correlationId = "loadtest-" + journeyId;
+        long journeyStart = System.nanoTime();
+
+        String orderId = timed(createOrder, () -> {
+            String form = "name=" + encode("Load User " + journeyId)
+                    + "&email=" + encode("user" + journeyId + "@loadtest.local")
+                    + "&phoneNumber=9876543210";
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/payment/create-order"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .header("X-Correlation-Id", correlationId)
+                    .POST(HttpRequest.BodyPublishers.ofString(form)));
+            Matcher matcher = ORDER_ID.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : null;
+        });
+        if (orderId == null) {
+            return;
+        }
+
+        String paymentId = "pay_load" + journeyId;
+        Boolean verified = timed(verify, () -> {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "razorpayOrderId", orderId,
+                    "razorpayPaymentId", paymentId,
+                    "razorpaySignature", hmacSha256(orderId + "|" + paymentId, KEY_SECRET)));
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/payment/verify"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Correlation-Id", correlationId)
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            JsonNode json = objectMapper.readTree(response.body());
+            return response.statusCode() == 200 && json.path("success").asBoolean() ? Boolean.TRUE : null;
+        });
+        if (verified == null) {
+            return;
+        }
+
+        // Razorpay also delivers payment.captured; the order is already PAID so no second email goes out
+        Boolean acknowledged = timed(webhook, () -> {
+            String payload = objectMapper.writeValueAsString(Map.of(
+                    "event", "payment.captured",
+                    "payload", Map.of("payment", Map.of("entity", Map.of(
+                            "id", paymentId, "order_id", orderId, "status", "captured")))));
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/webhook/razorpay"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Correlation-Id", correlationId)
+                    .header("X-Razorpay-Signature", hmacSha256(payload, WEBHOOK_SECRET))
+                    .POST(HttpRequest.BodyPublishers.ofString(payload)));
+            return response.statusCode() == 200 ? Boolean.TRUE : null;
+        });
+        if (acknowledged != null) {
+            journey.record(System.nanoTime() - journeyStart);
+        }
+    }
+
+    /**
+     * Time one step; a null result or an exception counts as an error.
+     */
+    private <T> T timed(LatencyRecorder recorder, Step<T> step) {
+        long start = System.nanoTime();
+        try {
+            T result = step.run();
+            recorder.record(System.nanoTime() - start);
+            if (result == null) {
+                recorder.error();
+            }
+            return result;
+        } catch (Exception e) {
+            recorder.error();
+            return null;
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String hmacSha256(String data, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @FunctionalInterface
+    private interface Step<T> {
+        T run() throws Exception;
+    }
+}
@@ -0,0 +1,132 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.CampaignCheckpoint;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Runs a campaign against a local SendGrid stub that rejects one batch while
+ * a later batch is still being accepted, and one whose batch send throws.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:campaign;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false",
+        "sendgrid.api.key=SG.campaign",
+        "campaign.batch-size=2",
+        "campaign.concurrency=2",
+        "campaign.requests-per-second=1000"
+})
+class CampaignServiceTests {
+
+    // Batches are users 1-2, 3-4, 5-6, 7-8: the second is rejected, the third answers slowly
+    private static final String REJECTED_RECIPIENT = "user3@campaign.test";
+    private static final String SLOW_RECIPIENT = "user5@campaign.test";
+
+    private static final AtomicBoolean rejecting = new AtomicBoolean(true);
+    private static final List<String> acceptedBodies = new CopyOnWriteArrayList<>();
+    private static final ProviderStubs stubs = new ProviderStubs().sendGrid(body -> {
+        if (body.contains(SLOW_RECIPIENT)) {
+            ProviderStubs.pause(1000);
+        }
+        if (rejecting.get() && body.contains(REJECTED_RECIPIENT)) {
+            return 400;
+        }
+        acceptedBodies.add(body);
+        return 202;
+    });
+
+    @Autowired
+    private CampaignService campaignService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private EmailService emailService;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        stubs.registerProperties(registry);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void checkpointStopsAtFailedBatchEvenWhenLaterBatchesSucceed() throws Exception {
+        List<Long> ids = users();
+
+        CampaignCheckpoint checkpoint = run("edition-test");
+        assertThat(checkpoint.getLastUserId()).isEqualTo(ids.get(1));
+        assertThat(checkpoint.getRecipientsSent()).isEqualTo(2);
+        assertThat(checkpoint.getBatchesSent()).isEqualTo(1);
+        assertThat(checkpoint.isCompleted()).isFalse();
+
+        // Resuming resends everything from the rejected batch on
+        rejecting.set(false);
+        acceptedBodies.clear();
+        checkpoint = run("edition-test");
+        assertThat(checkpoint.isCompleted()).isTrue();
+        assertThat(checkpoint.getLastUserId()).isEqualTo(ids.get(7));
+        assertThat(checkpoint.getRecipientsSent()).isEqualTo(8);
+        assertThat(acceptedBodies).anyMatch(body -> body.contains(REJECTED_RECIPIENT));
+        assertThat(acceptedBodies).anyMatch(body -> body.contains(SLOW_RECIPIENT));
+    }
+
+    @Test
+    void unexpectedExceptionFailsTheBatchInsteadOfAbortingTheCampaign() throws Exception {
+        List<Long> ids = users();
+        doThrow(new IllegalStateException("boom")).when(emailService).send(argThat(mail ->
+                mail.getPersonalization().stream().anyMatch(personalization -> personalization.getTos().stream()
+                        .anyMatch(to -> REJECTED_RECIPIENT.equals(to.getEmail())))));
+
+        CampaignCheckpoint checkpoint = run("edition-runtime");
+        assertThat(checkpoint.getLastUserId()).isEqualTo(ids.get(1));
+        assertThat(checkpoint.getRecipientsSent()).isEqualTo(2);
+        assertThat(checkpoint.isCompleted()).isFalse();
+    }
+
+    /**
+     * The eight campaign users, created by whichever test runs first.
+     */
+    private List<Long> users() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            User user = User.builder()
+                    .name("User " + i).email("user" + i + "@campaign.test").phoneNumber("9000000000").build();
+            ids.add(userRepository.findByEmail(user.getEmail())
+                    .orElseGet(() -> userRepository.save(user))
+                    .getId());
+        }
+        return ids;
+    }
+
+    private CampaignCheckpoint run(String campaignId) throws InterruptedException {
+        assertThat(campaignService.startEditionUpdateCampaign(campaignId)).isTrue();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (campaignService.isRunning(campaignId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(campaignService.isRunning(campaignId)).isFalse();
+        return campaignService.getCheckpoint(campaignId).orElseThrow();
+    }
+}
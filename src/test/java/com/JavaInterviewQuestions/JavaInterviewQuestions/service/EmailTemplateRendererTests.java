@@ -0,0 +1,38 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateRendererTests {
+
+    @Test
+    void escapesCustomerNameInRenderedEmail() {
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(new SimpleMeterRegistry(), "v1");
+        renderer.loadTemplates();
+
+        String html = renderer.render(EmailTemplateRenderer.PDF_DELIVERY, Map.of(
+                "name", "<script>alert(1)</script>",
+                "productName", "Java Interview Questions",
+                "fromEmail", "support@example.com",
+                "fromName", "Support"));
+
+        assertThat(html).contains("&lt;script&gt;alert(1)&lt;/script&gt;");
+        assertThat(html).doesNotContain("<script>");
+        assertThat(html).contains("Java Interview Questions");
+    }
+
+    @Test
+    void unknownTemplateVersionFailsAtStartup() {
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(new SimpleMeterRegistry(), "v0");
+
+        assertThatThrownBy(renderer::loadTemplates)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(EmailTemplateRenderer.PDF_DELIVERY)
+                .hasMessageContaining("v0");
+    }
+}
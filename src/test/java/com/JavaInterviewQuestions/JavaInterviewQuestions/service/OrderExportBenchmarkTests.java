@@ -0,0 +1,104 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a million seeded orders and prints throughput and peak heap. The
+ * in-memory database lives on the same heap, so the heap in use before the
+ * export is printed too; the difference is what the export itself needs.
+ * Run with: ./mvnw test -Dtest=OrderExportBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderExportBenchmarkTests {
+
+    private static final int USERS = 10_000;
+    private static final int ORDERS = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                insert into users (email, phone_number, name, created_at, pdf_delivered)
+                select 'user' || x || '@example.com', '9000000000', 'User ' || x, current_timestamp, false
+                from system_range(1, ?)
+                """, USERS);
+        jdbcTemplate.update("""
+                insert into orders (user_id, razorpay_order_id, amount, status, created_at, paid_at, email_sent)
+                select mod(x, ?) + 1, 'order_' || x, 14900,
+                       case when mod(x, 4) = 0 then 'CREATED' else 'PAID' end,
+                       dateadd('SECOND', -mod(x, 86400), current_timestamp),
+                       case when mod(x, 4) = 0 then null else current_timestamp end,
+                       mod(x, 4) <> 0
+                from system_range(1, ?)
+                """, USERS, ORDERS);
+    }
+
+    @Test
+    void exportMillionOrdersAsCsv() throws Exception {
+        run(OrderExportService.Format.CSV);
+    }
+
+    @Test
+    void exportMillionOrdersAsNdjson() throws Exception {
+        run(OrderExportService.Format.NDJSON);
+    }
+
+    private void run(OrderExportService.Format format) throws Exception {
+        System.gc();
+        long baselineHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        CountingOutputStream out = new CountingOutputStream();
+
+        long start = System.nanoTime();
+        long rows = orderExportService.exportOrders(LocalDate.now().minusDays(2), LocalDate.now(), format, out);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        System.out.printf("%s export: %d rows, %d MB written in %d ms (%.0f rows/s), peak heap %d MB (%d MB before export)%n",
+                format, rows, out.bytes / (1024 * 1024), elapsedMs, rows * 1000.0 / Math.max(elapsedMs, 1),
+                peakHeap / (1024 * 1024), baselineHeap / (1024 * 1024));
+
+        assertThat(rows).isEqualTo(ORDERS);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports orders whose customer fields look like spreadsheet formulas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false"
+})
+class OrderExportServiceTests {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void csvExportNeutralizesFormulasInCustomerFields() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("=1+2").email("-2+3@evil.test").phoneNumber("+919000000000").build());
+        orderRepository.save(Order.builder().user(user).razorpayOrderId("order_formula").amount(14900).build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDate today = LocalDate.now();
+        orderExportService.exportOrders(today, today, OrderExportService.Format.CSV, out);
+
+        String row = out.toString(StandardCharsets.UTF_8).lines()
+                .filter(line -> line.contains("order_formula"))
+                .findFirst().orElseThrow();
+        assertThat(row).contains(",14900,");
+        assertThat(row).endsWith(",'=1+2,'-2+3@evil.test,'+919000000000");
+    }
+}
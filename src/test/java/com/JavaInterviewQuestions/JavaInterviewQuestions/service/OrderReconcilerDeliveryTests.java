@@ -0,0 +1,92 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the reconciler the way the scheduler does, outside any request or
+ * transaction, with real users and a SendGrid stub, and checks that the PDF
+ * email reaches both a reconciled order and one left PAID without an email.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconcile-delivery;DB_CLOSE_DELAY=-1",
+        // Enabled so scheduledRun() does its work; the interval keeps the scheduler itself out of the test
+        "razorpay.reconcile.enabled=true",
+        "razorpay.reconcile.interval-ms=3600000",
+        "razorpay.reconcile.requests-per-second=1000",
+        "sendgrid.api.key=SG.reconcile"
+})
+class OrderReconcilerDeliveryTests {
+
+    private static final List<String> mails = new CopyOnWriteArrayList<>();
+    private static final ProviderStubs stubs = new ProviderStubs()
+            .razorpayPayments(orderId -> "order_stale".equals(orderId)
+                    ? "[{\"id\":\"pay_stale\",\"status\":\"captured\"}]"
+                    : "[]")
+            .sendGrid(body -> {
+                mails.add(body);
+                return 202;
+            });
+
+    @Autowired
+    private OrderReconciler orderReconciler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        stubs.registerProperties(registry);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void scheduledRunEmailsReconciledAndUndeliveredOrders() {
+        User stale = userRepository.save(User.builder()
+                .name("Stale Buyer").email("stale@example.com").phoneNumber("9000000000").build());
+        User undelivered = userRepository.save(User.builder()
+                .name("Undelivered Buyer").email("undelivered@example.com").phoneNumber("9000000001").build());
+        jdbcTemplate.update("""
+                insert into orders (user_id, razorpay_order_id, amount, status, created_at, email_sent)
+                values (?, 'order_stale', 14900, 'CREATED', dateadd('HOUR', -2, current_timestamp), false)
+                """, stale.getId());
+        jdbcTemplate.update("""
+                insert into orders (user_id, razorpay_order_id, amount, status, created_at, paid_at, email_sent)
+                values (?, 'order_undelivered', 14900, 'PAID', dateadd('HOUR', -1, current_timestamp),
+                        dateadd('MINUTE', -30, current_timestamp), false)
+                """, undelivered.getId());
+
+        orderReconciler.scheduledRun();
+
+        assertThat(emailSent("order_stale")).isTrue();
+        assertThat(emailSent("order_undelivered")).isTrue();
+        assertThat(stubs.mailsSent()).isEqualTo(2);
+        assertThat(mails).anyMatch(body -> body.contains("stale@example.com"));
+        assertThat(mails).anyMatch(body -> body.contains("undelivered@example.com"));
+    }
+
+    private boolean emailSent(String razorpayOrderId) {
+        return jdbcTemplate.queryForObject(
+                "select email_sent from orders where razorpay_order_id = ?", Boolean.class, razorpayOrderId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the reconciler against a local mock of the Razorpay payments API.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconcile;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false",
+        "razorpay.reconcile.page-size=2",
+        "razorpay.reconcile.requests-per-second=1000"
+})
+class OrderReconcilerTests {
+
+    private static final Map<String, String> PAYMENTS = Map.of(
+            "order_paid", "[{\"id\":\"pay_retry\",\"status\":\"failed\"},{\"id\":\"pay_captured\",\"status\":\"captured\"}]",
+            "order_failed", "[{\"id\":\"pay_declined\",\"status\":\"failed\"}]",
+            "order_authorized", "[{\"id\":\"pay_auth\",\"status\":\"authorized\"}]",
+            "order_abandoned", "[]"
+    );
+
+    private static final ProviderStubs stubs = new ProviderStubs().razorpayPayments(PAYMENTS::get);
+
+    @Autowired
+    private OrderReconciler orderReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        stubs.registerProperties(registry);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void reconcilesStaleCreatedOrdersFromRazorpayPayments() {
+        when(emailService.sendPdfEmail(any())).thenReturn(true);
+        PAYMENTS.keySet().forEach(orderId -> jdbcTemplate.update("""
+                insert into orders (razorpay_order_id, amount, status, created_at, email_sent)
+                values (?, 14900, 'CREATED', dateadd('HOUR', -2, current_timestamp), false)
+                """, orderId));
+        // Too recent to be considered stale
+        jdbcTemplate.update("""
+                insert into orders (razorpay_order_id, amount, status, created_at, email_sent)
+                values ('order_fresh', 14900, 'CREATED', current_timestamp, false)
+                """);
+        // Abandoned long ago, outside the lookback window; the stub would reject a lookup
+        jdbcTemplate.update("""
+                insert into orders (razorpay_order_id, amount, status, created_at, email_sent)
+                values ('order_ancient', 14900, 'CREATED', dateadd('DAY', -30, current_timestamp), false)
+                """);
+
+        OrderReconciler.ReconciliationResult result = orderReconciler.reconcile();
+
+        assertThat(result.scanned()).isEqualTo(4);
+        assertThat(result.paid()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors()).isZero();
+        assertThat(statusOf("order_paid")).isEqualTo("PAID");
+        assertThat(jdbcTemplate.queryForObject(
+                "select razorpay_payment_id from orders where razorpay_order_id = 'order_paid'", String.class))
+                .isEqualTo("pay_captured");
+        assertThat(jdbcTemplate.queryForObject(
+                "select email_sent from orders where razorpay_order_id = 'order_paid'", Boolean.class))
+                .isTrue();
+        assertThat(statusOf("order_failed")).isEqualTo("FAILED");
+        assertThat(statusOf("order_authorized")).isEqualTo("CREATED");
+        assertThat(statusOf("order_abandoned")).isEqualTo("CREATED");
+        assertThat(statusOf("order_fresh")).isEqualTo("CREATED");
+        assertThat(statusOf("order_ancient")).isEqualTo("CREATED");
+
+        // Nothing left to fix on the next run
+        assertThat(orderReconciler.reconcile().fixed()).isZero();
+    }
+
+    private String statusOf(String razorpayOrderId) {
+        return jdbcTemplate.queryForObject(
+                "select status from orders where razorpay_order_id = ?", String.class, razorpayOrderId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.config.CatalogProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfAssetStoreTests {
+
+    private static final byte[] PDF = "%PDF-1.4 test edition".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void checksumMismatchFailsStartup() throws Exception {
+        PdfAssetStore store = store("0".repeat(64));
+
+        assertThatThrownBy(store::mapAssets)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Checksum mismatch for product book")
+                .hasMessageContaining(sha256(PDF));
+    }
+
+    @Test
+    void missingOrUnknownProductCodeFallsBackToDefaultProduct() throws Exception {
+        PdfAssetStore store = store(sha256(PDF));
+        store.mapAssets();
+
+        for (String code : new String[] {null, "retired-product", "book"}) {
+            PdfAssetStore.PdfAsset asset = store.find(code).orElseThrow();
+            assertThat(asset.getProductCode()).as(String.valueOf(code)).isEqualTo("book");
+            assertThat(asset.getSize()).isEqualTo(PDF.length);
+            assertThat(asset.getFilename()).isEqualTo("Book.pdf");
+        }
+    }
+
+    private PdfAssetStore store(String sha256) throws Exception {
+        Path pdf = Files.write(dir.resolve("book.pdf"), PDF);
+        CatalogProperties catalog = new CatalogProperties("book", Map.of("book",
+                new CatalogProperties.Product("Book", 149, pdf.toUri().toString(), sha256, "Book.pdf")));
+        return new PdfAssetStore(catalog, new DefaultResourceLoader());
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
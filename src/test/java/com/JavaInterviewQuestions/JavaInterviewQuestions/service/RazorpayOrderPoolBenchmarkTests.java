@@ -0,0 +1,92 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.support.ProviderStubs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares checkout order creation with and without the warm order pool,
+ * against a local Razorpay stub that injects a fixed latency per orders.create.
+ * Run with: ./mvnw test -Dtest=RazorpayOrderPoolBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderpool;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false",
+        "razorpay.order-pool.enabled=true",
+        "razorpay.order-pool.size=10",
+        "razorpay.order-pool.refill-concurrency=4"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RazorpayOrderPoolBenchmarkTests {
+
+    private static final long STUB_LATENCY_MS = 250;
+    private static final int CHECKOUTS = 100;
+    private static final long CHECKOUT_INTERVAL_MS = 100;
+
+    private static final ProviderStubs stubs = new ProviderStubs().razorpayLatencyMs(STUB_LATENCY_MS);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private RazorpayApiClient razorpayApiClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        stubs.registerProperties(registry);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void pooledCheckoutHasLowerP95ThanSynchronousCreate() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("Bench").email("bench@example.com").phoneNumber("9000000000").build());
+
+        long[] direct = new long[CHECKOUTS];
+        for (int i = 0; i < CHECKOUTS; i++) {
+            long start = System.nanoTime();
+            razorpayApiClient.createOrder(14900, "INR", "bench_" + i);
+            direct[i] = System.nanoTime() - start;
+        }
+
+        // The pool warmed up in the background while the synchronous run was measured
+        long[] pooled = new long[CHECKOUTS];
+        for (int i = 0; i < CHECKOUTS; i++) {
+            long start = System.nanoTime();
+            paymentService.createOrder(user);
+            pooled[i] = System.nanoTime() - start;
+            Thread.sleep(CHECKOUT_INTERVAL_MS);
+        }
+
+        long directP95 = p95Millis(direct);
+        long pooledP95 = p95Millis(pooled);
+        System.out.printf("orders.create p95 with %d ms stub latency: synchronous %d ms, pooled %d ms%n",
+                STUB_LATENCY_MS, directP95, pooledP95);
+
+        assertThat(pooledP95).isLessThan(directP95);
+    }
+
+    private static long p95Millis(long[] samplesNanos) {
+        long[] sorted = samplesNanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1_000_000;
+    }
+}
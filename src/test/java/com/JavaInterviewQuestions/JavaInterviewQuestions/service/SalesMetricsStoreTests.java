@@ -0,0 +1,95 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.service;
+
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.Order;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.entity.User;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.OrderRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.SalesSummaryRepository;
+import com.JavaInterviewQuestions.JavaInterviewQuestions.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives Order status changes through the repository and checks that the
+ * JPA listener feeds the dashboard buckets, and that a snapshot restores
+ * into a fresh store with the same counts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:salesmetrics;DB_CLOSE_DELAY=-1",
+        "razorpay.reconcile.enabled=false"
+})
+class SalesMetricsStoreTests {
+
+    private static final int MINUTES = 5;
+
+    @Autowired
+    private SalesMetricsStore salesMetricsStore;
+
+    @Autowired
+    private SalesSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${sales.dashboard.minute-retention}")
+    private int minuteRetention;
+
+    @Value("${sales.dashboard.day-retention}")
+    private int dayRetention;
+
+    @Test
+    void statusTransitionsIncrementBucketsAndSurviveSnapshot() {
+        long createdBefore = today(salesMetricsStore, SalesMetricsStore.Event.ORDER_CREATED);
+        long paidBefore = today(salesMetricsStore, SalesMetricsStore.Event.ORDER_PAID);
+        long paidMinutesBefore = lastMinutes(salesMetricsStore, SalesMetricsStore.Event.ORDER_PAID);
+
+        User user = userRepository.save(User.builder()
+                .name("Metrics").email("metrics@example.com").phoneNumber("9000000000").build());
+        Order order = orderRepository.save(Order.builder()
+                .user(user).razorpayOrderId("order_metrics").amount(14900).build());
+        assertThat(today(salesMetricsStore, SalesMetricsStore.Event.ORDER_CREATED)).isEqualTo(createdBefore + 1);
+        assertThat(today(salesMetricsStore, SalesMetricsStore.Event.ORDER_PAID)).isEqualTo(paidBefore);
+
+        order.setStatus(Order.OrderStatus.PAID);
+        order = orderRepository.save(order);
+        // Saving again without a status change is not a new transition
+        order.setEmailSent(true);
+        orderRepository.save(order);
+        assertThat(today(salesMetricsStore, SalesMetricsStore.Event.ORDER_CREATED)).isEqualTo(createdBefore + 1);
+        assertThat(today(salesMetricsStore, SalesMetricsStore.Event.ORDER_PAID)).isEqualTo(paidBefore + 1);
+        assertThat(lastMinutes(salesMetricsStore, SalesMetricsStore.Event.ORDER_PAID)).isEqualTo(paidMinutesBefore + 1);
+
+        salesMetricsStore.snapshot();
+        SalesMetricsStore restored = new SalesMetricsStore(summaryRepository, minuteRetention, dayRetention);
+        restored.restore();
+
+        for (SalesMetricsStore.Event event : SalesMetricsStore.Event.values()) {
+            assertThat(today(restored, event)).as(event.name()).isEqualTo(today(salesMetricsStore, event));
+            assertThat(lastMinutes(restored, event)).as(event.name()).isEqualTo(lastMinutes(salesMetricsStore, event));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long today(SalesMetricsStore store, SalesMetricsStore.Event event) {
+        Map<String, Object> today = (Map<String, Object>) store.dashboard(1, 1).get("today");
+        return (long) today.get(event.getField());
+    }
+
+    /**
+     * Summed over several minute buckets, so a minute boundary between two reads does not matter.
+     */
+    @SuppressWarnings("unchecked")
+    private static long lastMinutes(SalesMetricsStore store, SalesMetricsStore.Event event) {
+        List<Map<String, Object>> minutes = (List<Map<String, Object>>) store.dashboard(MINUTES, 1).get("minutes");
+        return minutes.stream().mapToLong(minute -> (long) minute.get(event.getField())).sum();
+    }
+}
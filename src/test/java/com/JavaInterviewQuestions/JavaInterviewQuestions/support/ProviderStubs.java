@@ -0,0 +1,188 @@
+package com.JavaInterviewQuestions.JavaInterviewQuestions.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Local stand-in for the Razorpay orders API and SendGrid mail/send, so tests
+ * never reach live providers. By default orders.create returns a new order id,
+ * an order's payments collection is empty and every mail is accepted; latency
+ * and per-request responses can be changed at any time, also mid-test.
+ */
+public class ProviderStubs implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicLong orderIds = new AtomicLong();
+    private final AtomicLong ordersCreated = new AtomicLong();
+    private final AtomicLong mailsReceived = new AtomicLong();
+    private final AtomicLong mailsSent = new AtomicLong();
+    private volatile long razorpayLatencyMs;
+    private volatile long sendGridLatencyMs;
+    private volatile Function<String, String> payments = orderId -> "[]";
+    private volatile ToIntFunction<String> sendGrid = body -> 202;
+
+    public ProviderStubs() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/v1/orders", this::handleRazorpay);
+        server.createContext("/v3/mail/send", this::handleSendGrid);
+        server.start();
+    }
+
+    /**
+     * Delay every Razorpay response
+     */
+    public ProviderStubs razorpayLatencyMs(long millis) {
+        this.razorpayLatencyMs = millis;
+        return this;
+    }
+
+    /**
+     * Delay every SendGrid response, after the request has been counted as received
+     */
+    public ProviderStubs sendGridLatencyMs(long millis) {
+        this.sendGridLatencyMs = millis;
+        return this;
+    }
+
+    /**
+     * Answer GET /v1/orders/{id}/payments
+     * @param payments maps a Razorpay order id to its JSON "items" array, or null for a 400
+     */
+    public ProviderStubs razorpayPayments(Function<String, String> payments) {
+        this.payments = payments;
+        return this;
+    }
+
+    /**
+     * Answer POST /v3/mail/send
+     * @param sendGrid maps the request body to the HTTP status to return
+     */
+    public ProviderStubs sendGrid(ToIntFunction<String> sendGrid) {
+        this.sendGrid = sendGrid;
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Settings that point the application's Razorpay and SendGrid clients at the stubs
+     */
+    public Map<String, String> properties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("razorpay.api.base-url", "http://localhost:" + port());
+        properties.put("sendgrid.api.host", "localhost:" + port());
+        properties.put("sendgrid.api.plain-http", "true");
+        return properties;
+    }
+
+    public void registerProperties(DynamicPropertyRegistry registry) {
+        properties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    public long ordersCreated() {
+        return ordersCreated.get();
+    }
+
+    public long mailsReceived() {
+        return mailsReceived.get();
+    }
+
+    /**
+     * Mails answered with a 2xx status
+     */
+    public long mailsSent() {
+        return mailsSent.get();
+    }
+
+    private void handleRazorpay(HttpExchange exchange) throws IOException {
+        drain(exchange);
+        pause(razorpayLatencyMs);
+        if ("POST".equals(exchange.getRequestMethod())) {
+            ordersCreated.incrementAndGet();
+            String id = "order_stub" + orderIds.incrementAndGet();
+            respond(exchange, 200, "{\"id\":\"" + id + "\",\"entity\":\"order\",\"status\":\"created\"}");
+            return;
+        }
+        // GET /v1/orders/{id}/payments
+        String orderId = exchange.getRequestURI().getPath().split("/")[3];
+        String items = payments.apply(orderId);
+        if (items != null) {
+            respond(exchange, 200, "{\"entity\":\"collection\",\"items\":" + items + "}");
+        } else {
+            respond(exchange, 400, "{\"error\":{\"code\":\"BAD_REQUEST_ERROR\"}}");
+        }
+    }
+
+    private void handleSendGrid(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        mailsReceived.incrementAndGet();
+        pause(sendGridLatencyMs);
+        int status = sendGrid.applyAsInt(body);
+        if (status >= 200 && status < 300) {
+            mailsSent.incrementAndGet();
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Sleep inside a response function without a checked exception
+     */
+    public static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}